@@ -8,6 +8,7 @@ import com.sproutigy.verve.webserver.HttpRoute;
 import com.sproutigy.verve.webserver.HttpRouter;
 import com.sproutigy.verve.webserver.HttpServer;
 import com.sproutigy.verve.webserver.impl.HttpRouterImpl;
+import com.sproutigy.verve.webserver.serialization.JacksonSerializationService;
 import lombok.extern.slf4j.Slf4j;
 
 import java.net.BindException;
@@ -36,6 +37,7 @@ public class VerveQuickstart {
         System.out.println(LOGO);
 
         HttpServer httpServer = new HttpServer();
+        httpServer.setSerializationService(JacksonSerializationService.getDefault());
         try {
             httpServer.start().get();
         } catch (Exception e) {
@@ -56,8 +58,13 @@ public class VerveQuickstart {
         VerveRoot verveRoot = new VerveRoot();
         verveRoot.addListener((eventType, module) -> {
             if (eventType == VerveRootListener.EventType.Initializing) {
+                HttpRouter router = new HttpRouterImpl();
+                router.addListener(r -> httpServer.invalidateRoutes());
                 module.getContext().add(HttpServer.class, httpServer);
-                module.getContext().add(HttpRouter.class, new HttpRouterImpl());
+                module.getContext().add(HttpRouter.class, router);
+            }
+            if (eventType == VerveRootListener.EventType.Initialized) {
+                httpServer.invalidateRoutes();
             }
         });
 
@@ -71,6 +78,7 @@ public class VerveQuickstart {
         LocalCORS cors = new LocalCORS();
         HttpRouter rootRouter = new HttpRouterImpl();
         rootRouter.add(cors);
+        rootRouter.addListener(r -> httpServer.invalidateRoutes());
 
         httpServer.setRouteProvider(() -> {
             Collection<HttpRoute> routes = new LinkedList<>();
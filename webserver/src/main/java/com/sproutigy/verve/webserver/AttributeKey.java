@@ -0,0 +1,59 @@
+package com.sproutigy.verve.webserver;
+
+import lombok.Getter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Typed key of request attribute.
+ * Keys are interned by name and numbered, so {@link RequestAttributes} may keep values in an array.
+ * Keys should be created once and kept in static fields.
+ */
+public final class AttributeKey<T> {
+    private static final ConcurrentHashMap<String, AttributeKey<?>> KEYS = new ConcurrentHashMap<>();
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    @Getter
+    private final String name;
+
+    @Getter
+    private final Class<T> type;
+
+    final int index;
+
+    private AttributeKey(String name, Class<T> type) {
+        this.name = name;
+        this.type = type;
+        this.index = COUNTER.getAndIncrement();
+    }
+
+    /**
+     * @return key of given name, the same instance for the same name
+     * @throws IllegalArgumentException when key of given name is already defined with other type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> AttributeKey<T> of(String name, Class<T> type) {
+        AttributeKey<?> key = KEYS.computeIfAbsent(name, n -> new AttributeKey<>(n, type));
+        if (key.type != type) {
+            throw new IllegalArgumentException("Attribute " + name + " is already defined with type " + key.type.getName());
+        }
+        return (AttributeKey<T>) key;
+    }
+
+    /**
+     * @return key of given name or null when there is none
+     */
+    public static AttributeKey<?> find(String name) {
+        return KEYS.get(name);
+    }
+
+    static int count() {
+        return COUNTER.get();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
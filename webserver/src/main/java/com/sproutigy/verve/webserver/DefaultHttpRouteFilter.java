@@ -1,12 +1,13 @@
 package com.sproutigy.verve.webserver;
 
+import io.vertx.core.http.HttpMethod;
+import lombok.AccessLevel;
 import lombok.Data;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Data
@@ -15,6 +16,10 @@ public class DefaultHttpRouteFilter implements HttpRouteFilter {
     @Getter
     private Collection<String> methods;
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient Set<HttpMethod> httpMethods = Collections.emptySet();
+
     @Getter
     private Collection<PathPattern> pathPatterns;
 
@@ -28,9 +33,9 @@ public class DefaultHttpRouteFilter implements HttpRouteFilter {
 
     public DefaultHttpRouteFilter(String method, String pathPattern) {
         if (method != null) {
-            this.methods = Collections.singleton(method);
+            setMethods(Collections.singleton(method));
         } else {
-            this.methods = Collections.emptyList();
+            setMethods(Collections.emptyList());
         }
         if (pathPattern != null) {
             this.pathPatterns = Collections.singleton(new PathPattern(pathPattern));
@@ -40,7 +45,7 @@ public class DefaultHttpRouteFilter implements HttpRouteFilter {
     }
 
     public DefaultHttpRouteFilter(Collection<String> methods, Collection<String> pathPatterns) {
-        this.methods = methods;
+        setMethods(methods);
         this.pathPatterns = pathPatterns.stream().map(PathPattern::new).collect(Collectors.toList());
     }
 
@@ -52,9 +57,47 @@ public class DefaultHttpRouteFilter implements HttpRouteFilter {
         this(methods, Collections.singleton(pathPattern));
     }
 
+    public void setMethods(Collection<String> methods) {
+        this.methods = methods;
+        this.httpMethods = toHttpMethods(methods);
+    }
+
+    /**
+     * @return methods accepted by filter (empty when any method is accepted)
+     * or null when some of them are not known to {@link HttpMethod}
+     */
+    public Set<HttpMethod> getHttpMethods() {
+        return httpMethods;
+    }
+
+    public boolean matchesMethod(HttpRequest req) {
+        if (methods == null || methods.size() == 0) {
+            return true;
+        }
+        if (httpMethods != null) {
+            return httpMethods.contains(req.getHttpMethod());
+        }
+        return methods.contains(req.getMethod());
+    }
+
+    private static Set<HttpMethod> toHttpMethods(Collection<String> methods) {
+        if (methods == null || methods.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<HttpMethod> httpMethods = EnumSet.noneOf(HttpMethod.class);
+        for (String method : methods) {
+            try {
+                httpMethods.add(HttpMethod.valueOf(method));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                return null;
+            }
+        }
+        return httpMethods;
+    }
+
     @Override
     public Map<String, String> filter(HttpRequest req) {
-        if (methods == null || methods.size() == 0 || methods.contains(req.getMethod())) {
+        if (matchesMethod(req)) {
             if (pathPatterns != null && pathPatterns.size() > 0) {
                 for (PathPattern pathPattern : pathPatterns) {
                     Map<String, String> matchParams = pathPattern.matchParams(req.getContextualPath());
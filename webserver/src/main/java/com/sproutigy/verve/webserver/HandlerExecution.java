@@ -0,0 +1,22 @@
+package com.sproutigy.verve.webserver;
+
+/**
+ * Declares where route handler is run.
+ */
+public enum HandlerExecution {
+    /**
+     * Handler is run on dispatching thread, blocking work is detected by returned Callable or Runnable.
+     */
+    AUTO,
+
+    /**
+     * Handler may block, it is run on worker thread (of named worker pool when specified).
+     */
+    BLOCKING,
+
+    /**
+     * Handler never blocks, it is run on dispatching thread.
+     * Returned Callable or Runnable is not offloaded to worker thread either, it is called in place.
+     */
+    NON_BLOCKING
+}
@@ -4,8 +4,12 @@ import com.sproutigy.commons.async.Promise;
 import com.sproutigy.commons.binary.Binary;
 import com.sproutigy.verve.webserver.exceptions.BadRequestHttpException;
 import io.netty.handler.codec.http.cookie.Cookie;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.streams.ReadStream;
 
 import javax.annotation.Nullable;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
@@ -22,12 +26,32 @@ public interface HttpRequest extends AutoCloseable {
 
     String getMethod();
 
+    /**
+     * @return request method or null when it is not known to {@link HttpMethod}
+     */
+    @Nullable
+    HttpMethod getHttpMethod();
+
     String getContextualPath();
 
     Promise<Binary> fetchData();
 
     Promise<Binary> fetchData(long limit);
 
+    /**
+     * Provides request body as stream of buffers, so it can be processed incrementally without buffering.
+     * Handlers have to be set before handler method returns. Cannot be combined with {@link #fetchData()}.
+     */
+    ReadStream<Buffer> getBodyStream();
+
+    /**
+     * Provides request body as blocking InputStream with back-pressure.
+     * Has to be obtained within handler method, but should be read on worker thread only
+     * (e.g. within {@link HttpRequestContext#blocking(java.util.concurrent.Callable)}).
+     * Cannot be combined with {@link #fetchData()}.
+     */
+    InputStream getBodyInputStream();
+
 
     String getQueryString();
 
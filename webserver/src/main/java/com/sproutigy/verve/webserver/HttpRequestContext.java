@@ -52,10 +52,43 @@ public interface HttpRequestContext {
 
     void onFinished(Runnable runnable);
 
-    <V> Promise<V> blocking(Callable<V> callable);
+    /**
+     * Runs callable on default worker pool. Blocking tasks are not ordered,
+     * so they may run in parallel even when dispatched from the same event loop.
+     */
+    default <V> Promise<V> blocking(Callable<V> callable) {
+        return blocking(null, false, callable);
+    }
+
+    /**
+     * Runs callable on named worker pool (default pool when null or empty).
+     */
+    default <V> Promise<V> blocking(String workerPool, Callable<V> callable) {
+        return blocking(workerPool, false, callable);
+    }
 
+    /**
+     * Runs callable on named worker pool (default pool when null or empty).
+     * Ordered tasks of the same Vert.x context are run one after another.
+     * Promise is rejected with {@link java.util.concurrent.RejectedExecutionException} when pool queue is full.
+     */
+    <V> Promise<V> blocking(String workerPool, boolean ordered, Callable<V> callable);
+
+    /**
+     * @return general purpose attributes context, prefer {@link #getRequestAttributes()} for request scoped values
+     */
     Context getAttributes();
 
+    RequestAttributes getRequestAttributes();
+
+    default <T> T getAttribute(AttributeKey<T> key) {
+        return getRequestAttributes().get(key);
+    }
+
+    default <T> void setAttribute(AttributeKey<T> key, T value) {
+        getRequestAttributes().set(key, value);
+    }
+
 
     ThreadLocal<HttpRequestContext> threadLocalHttpContext = new ThreadLocal<>();
 
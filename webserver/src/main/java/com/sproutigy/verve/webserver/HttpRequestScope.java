@@ -0,0 +1,91 @@
+package com.sproutigy.verve.webserver;
+
+import io.vertx.core.Handler;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+
+/**
+ * Makes {@link HttpRequestContext} current ({@link HttpRequestContext#get()}) for a block of code
+ * and carries it over async hops.
+ *
+ * Entering a scope of request that is already current is a no-op and leaving a scope restores previous request
+ * instead of clearing it, so nested dispatching does not touch the thread local again.
+ * Tasks, handlers and executors wrapped by this class capture the request, so it follows continuations
+ * run on worker threads, executors or Vert.x contexts without explicit set/remove pairs.
+ *
+ * Vert.x event loop context is shared by all requests of a verticle, so the request is bound
+ * to continuations rather than to context local data.
+ */
+public final class HttpRequestScope implements AutoCloseable {
+
+    private static final HttpRequestScope NOOP = new HttpRequestScope(null);
+
+    private final HttpRequestContext previous;
+
+    private HttpRequestScope(HttpRequestContext previous) {
+        this.previous = previous;
+    }
+
+    /**
+     * Makes request current until returned scope is closed.
+     */
+    public static HttpRequestScope enter(HttpRequestContext ctx) {
+        HttpRequestContext previous = HttpRequestContext.threadLocalHttpContext.get();
+        if (previous == ctx) {
+            return NOOP;
+        }
+        HttpRequestContext.threadLocalHttpContext.set(ctx);
+        return new HttpRequestScope(previous);
+    }
+
+    /**
+     * @return current request or null when there is none
+     */
+    public static HttpRequestContext current() {
+        return HttpRequestContext.threadLocalHttpContext.get();
+    }
+
+    @Override
+    public void close() {
+        if (this == NOOP) {
+            return;
+        }
+        if (previous == null) {
+            HttpRequestContext.threadLocalHttpContext.remove();
+        } else {
+            HttpRequestContext.threadLocalHttpContext.set(previous);
+        }
+    }
+
+    public static Runnable wrap(HttpRequestContext ctx, Runnable runnable) {
+        return () -> {
+            try (HttpRequestScope ignore = enter(ctx)) {
+                runnable.run();
+            }
+        };
+    }
+
+    public static <V> Callable<V> wrap(HttpRequestContext ctx, Callable<V> callable) {
+        return () -> {
+            try (HttpRequestScope ignore = enter(ctx)) {
+                return callable.call();
+            }
+        };
+    }
+
+    public static <T> Handler<T> wrapHandler(HttpRequestContext ctx, Handler<T> handler) {
+        return event -> {
+            try (HttpRequestScope ignore = enter(ctx)) {
+                handler.handle(event);
+            }
+        };
+    }
+
+    /**
+     * @return executor running tasks within scope of given request
+     */
+    public static Executor wrapExecutor(HttpRequestContext ctx, Executor executor) {
+        return command -> executor.execute(wrap(ctx, command));
+    }
+}
@@ -4,6 +4,7 @@ import com.sproutigy.commons.async.Promise;
 import com.sproutigy.commons.binary.Binary;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.cookie.Cookie;
+import io.vertx.core.buffer.Buffer;
 
 public interface HttpResponse {
     HttpResponse status(int code);
@@ -20,10 +21,26 @@ public interface HttpResponse {
 
     Promise<Void> sendFile(String filePath);
 
+    /**
+     * Enables chunked transfer encoding, required to write body without known Content-Length.
+     */
+    HttpResponse setChunked(boolean chunked);
+
+    /**
+     * Writes chunk of body. Writer should stop when {@link #isWriteQueueFull()}
+     * and continue when handler passed to {@link #drainHandler(Runnable)} is called.
+     */
+    HttpResponse write(Buffer data);
+
+    boolean isWriteQueueFull();
+
+    HttpResponse drainHandler(Runnable handler);
+
     void redirect(String url);
 
     void end(String text);
     void end(Binary data);
+    void end(Buffer data);
     void end();
 
     boolean isHeaderCompleted();
@@ -1,6 +1,8 @@
 package com.sproutigy.verve.webserver;
 
+import com.sproutigy.verve.webserver.annotations.Blocking;
 import com.sproutigy.verve.webserver.annotations.HttpRoutes;
+import com.sproutigy.verve.webserver.annotations.NonBlocking;
 import lombok.*;
 
 import java.util.*;
@@ -27,10 +29,30 @@ public class HttpRoute {
     @Getter
     private Class outputType;
 
+    @Getter
+    private HandlerExecution execution = HandlerExecution.AUTO;
+
+    /**
+     * Name of worker pool used when execution is blocking, default worker pool when null or empty.
+     */
+    @Getter
+    private String workerPool;
+
     public HttpRoute(int order, HttpRouteFilter filter, HttpHandler handler) {
-        this(order, filter, handler, null, null);
+        this(order, filter, handler, null, null, HandlerExecution.AUTO, null);
     }
 
+    public HttpRoute(int order, HttpRouteFilter filter, HttpHandler handler, Class inputType, Class outputType) {
+        this(order, filter, handler, inputType, outputType, HandlerExecution.AUTO, null);
+    }
+
+    public boolean isBlocking() {
+        return execution == HandlerExecution.BLOCKING;
+    }
+
+    public boolean isNonBlocking() {
+        return execution == HandlerExecution.NON_BLOCKING;
+    }
 
     @SuppressWarnings("unchecked")
     public static List<HttpRoute> from(Object instance) {
@@ -60,6 +82,7 @@ public class HttpRoute {
                 }
 
                 HttpRoute route = from(annotation, handler);
+                applyExecutionAnnotations(route, instance.getClass());
                 routes.add(route);
             }
 
@@ -73,12 +96,29 @@ public class HttpRoute {
             }
 
             HttpRoute route = new HttpRoute(HttpRouteFilter.ALWAYS, handler);
+            applyExecutionAnnotations(route, instance.getClass());
             return Collections.singletonList(route);
         }
     }
 
     public static HttpRoute from(com.sproutigy.verve.webserver.annotations.HttpRoute annotation, HttpHandler handler) {
         HttpRouteFilter filter = new DefaultHttpRouteFilter(Arrays.asList(annotation.method()), Arrays.asList(annotation.path()));
-        return new HttpRoute(annotation.order(), filter, handler, annotation.inputType(), annotation.outputType());
+        return new HttpRoute(annotation.order(), filter, handler, annotation.inputType(), annotation.outputType(), annotation.execution(), annotation.workerPool());
+    }
+
+    private static void applyExecutionAnnotations(HttpRoute route, Class<?> handlerClass) {
+        if (route.getExecution() != null && route.getExecution() != HandlerExecution.AUTO) {
+            return;
+        }
+
+        Blocking blocking = handlerClass.getAnnotation(Blocking.class);
+        if (blocking != null) {
+            route.setExecution(HandlerExecution.BLOCKING);
+            if (route.getWorkerPool() == null || route.getWorkerPool().isEmpty()) {
+                route.setWorkerPool(blocking.value());
+            }
+        } else if (handlerClass.isAnnotationPresent(NonBlocking.class)) {
+            route.setExecution(HandlerExecution.NON_BLOCKING);
+        }
     }
 }
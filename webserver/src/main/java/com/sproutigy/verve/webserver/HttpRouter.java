@@ -20,4 +20,7 @@ public interface HttpRouter extends Iterable<HttpRoute> {
     HttpRoute addRedirect(String pathPattern, String redirect);
     HttpRoute addRedirect(String pathPattern, Function<HttpRequestContext, String> redirect);
     void remove(HttpRoute route);
+
+    void addListener(HttpRouterListener listener);
+    void removeListener(HttpRouterListener listener);
 }
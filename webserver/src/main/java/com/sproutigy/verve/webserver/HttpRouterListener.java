@@ -0,0 +1,5 @@
+package com.sproutigy.verve.webserver;
+
+public interface HttpRouterListener {
+    void onRoutesChanged(HttpRouter router);
+}
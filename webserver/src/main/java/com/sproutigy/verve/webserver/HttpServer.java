@@ -1,27 +1,37 @@
 package com.sproutigy.verve.webserver;
 
 import com.sproutigy.commons.async.Promise;
+import com.sproutigy.verve.webserver.impl.CompiledRouteTable;
 import com.sproutigy.verve.webserver.impl.HttpRequestContextImpl;
+import com.sproutigy.verve.webserver.impl.RequestContextPool;
+import com.sproutigy.verve.webserver.serialization.JacksonSerializationService;
+import com.sproutigy.verve.webserver.serialization.SerializationService;
+import com.sproutigy.verve.webserver.vertx.ExecutionMode;
 import com.sproutigy.verve.webserver.vertx.VertxHttpRequest;
 import com.sproutigy.verve.webserver.vertx.VertxHttpResponse;
 import com.sproutigy.verve.webserver.vertx.VertxHttpServer;
 import io.vertx.core.Vertx;
 import lombok.Getter;
+import lombok.Setter;
 
-import java.util.Comparator;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.concurrent.Future;
 
 public class HttpServer implements AutoCloseable {
 
     public static final String PORT_PROPERTY = "verve.httpserver.port";
     public static final String CONTEXT_PATH_PROPERTY = "verve.httpserver.contextpath";
+    public static final String EXECUTION_MODE_PROPERTY = "verve.httpserver.executionmode";
+    public static final String REQUEST_POOLING_PROPERTY = "verve.httpserver.requestpooling";
 
     public static final int DEFAULT_PORT = 80;
 
     private Iterable<HttpRoute> routeProvider;
 
+    private final HttpRouterListener routeProviderListener = router -> invalidateRoutes();
+
+    private volatile CompiledRouteTable routeTable;
+    private final Object routeTableLock = new Object();
+
     public Iterable<HttpRoute> getRouteProvider() {
         if (routeProvider == null) {
             synchronized (this) {
@@ -35,19 +45,94 @@ public class HttpServer implements AutoCloseable {
         return routeProvider;
     }
 
+    /**
+     * Sets provider of routes, which are compiled into route table on first request.
+     * When provider is {@link HttpRouter}, route table is rebuilt automatically whenever its routes change.
+     * Other providers have to call {@link #invalidateRoutes()} whenever routes they return change,
+     * otherwise previously compiled routes keep being served.
+     */
     public void setRouteProvider(Iterable<HttpRoute> routeProvider) {
         synchronized (this) {
+            if (this.routeProvider instanceof HttpRouter) {
+                ((HttpRouter) this.routeProvider).removeListener(routeProviderListener);
+            }
             this.routeProvider = routeProvider;
+            if (routeProvider instanceof HttpRouter) {
+                ((HttpRouter) routeProvider).addListener(routeProviderListener);
+            }
             this.notifyAll();
         }
+        invalidateRoutes();
+    }
+
+    public CompiledRouteTable getRouteTable() {
+        CompiledRouteTable table = routeTable;
+        if (table == null) {
+            synchronized (routeTableLock) {
+                table = routeTable;
+                if (table == null) {
+                    table = CompiledRouteTable.compile(getRouteProvider());
+                    routeTable = table;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Drops compiled route table, so it is rebuilt from route provider on next request.
+     * Has to be called whenever routes returned by route provider change,
+     * unless provider is {@link HttpRouter} (see {@link #setRouteProvider(Iterable)}).
+     */
+    public void invalidateRoutes() {
+        synchronized (routeTableLock) {
+            routeTable = null;
+        }
     }
 
     @Getter
     private VertxHttpServer vertxHttpServer;
 
+    @Getter @Setter
+    private SerializationService serializationService = JacksonSerializationService.getDefault();
+
     @Getter
     private String contextPath = "/";
 
+    /**
+     * Minimum size of returned collection to be streamed as chunked JSON array instead of being serialized at once.
+     * Streaming is disabled when 0 or less (default).
+     */
+    @Getter
+    @Setter
+    private int jsonStreamingThreshold = 0;
+
+    /**
+     * Number of serialized bytes collected before they are sent as a chunk of streamed JSON array.
+     */
+    @Getter
+    @Setter
+    private int jsonStreamingFlushSize = 32 * 1024;
+
+    /**
+     * When enabled, JSON request bodies are parsed as they arrive instead of being buffered first.
+     * Body parsed by fetchDataAs is then consumed as stream and cannot be fetched again by fetchData.
+     */
+    @Getter
+    @Setter
+    private boolean incrementalJsonParsing = true;
+
+    /**
+     * When enabled, request contexts with their request and response wrappers are recycled by pools
+     * of event loop contexts, so it applies to EVENT_LOOP execution mode only.
+     * Handlers must not use request context after its route chain is finished.
+     */
+    @Getter
+    @Setter
+    private boolean requestPooling = Boolean.getBoolean(REQUEST_POOLING_PROPERTY);
+
+    private final String requestContextPoolKey = RequestContextPool.class.getName() + "@" + Integer.toHexString(System.identityHashCode(this));
+
     public HttpServer() {
         this.vertxHttpServer = new VertxHttpServer();
     }
@@ -83,10 +168,20 @@ public class HttpServer implements AutoCloseable {
             }
         }
 
+        String executionMode = System.getProperty(EXECUTION_MODE_PROPERTY);
+        if (executionMode != null) {
+            getVertxHttpServer().setExecutionMode(ExecutionMode.valueOf(executionMode.trim().toUpperCase()));
+        }
+
         this.contextPath = contextPath != null ? contextPath : System.getProperty(CONTEXT_PATH_PROPERTY);
         if (this.contextPath == null) this.contextPath = "/";
 
         getVertxHttpServer().setHandler(vertxRequest -> {
+            RequestContextPool pool = requestPooling ? getRequestContextPool() : null;
+            if (pool != null) {
+                pool.acquire(vertxRequest).run();
+                return;
+            }
             HttpRequest req = new VertxHttpRequest(vertxRequest);
             HttpResponse resp = new VertxHttpResponse(vertxRequest);
             dispatch(req, resp);
@@ -96,17 +191,27 @@ public class HttpServer implements AutoCloseable {
     }
 
     public HttpRequestContext dispatch(HttpRequest request, HttpResponse response) {
-        List<HttpRoute> routes = new LinkedList<>();
-        for (HttpRoute route : getRouteProvider()) {
-            routes.add(route);
-        }
-        routes.sort(Comparator.comparingInt(HttpRoute::getOrder));
-
-        HttpRequestContextImpl ctx = new HttpRequestContextImpl(this, getContextPath(), request, response, routes.iterator());
+        HttpRequestContextImpl ctx = new HttpRequestContextImpl(this, getContextPath(), request, response, getRouteTable().cursor(request));
         ctx.run();
         return ctx;
     }
 
+    /**
+     * @return request context pool of current event loop context, null when not on event loop
+     */
+    public RequestContextPool getRequestContextPool() {
+        io.vertx.core.Context context = Vertx.currentContext();
+        if (context == null || !context.isEventLoopContext()) {
+            return null;
+        }
+        RequestContextPool pool = context.get(requestContextPoolKey);
+        if (pool == null) {
+            pool = new RequestContextPool(this, context, RequestContextPool.DEFAULT_MAX_SIZE);
+            context.put(requestContextPoolKey, pool);
+        }
+        return pool;
+    }
+
     public Future<Void> stop() {
         return getVertxHttpServer().stop();
     }
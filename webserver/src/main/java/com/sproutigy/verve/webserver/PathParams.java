@@ -0,0 +1,91 @@
+package com.sproutigy.verve.webserver;
+
+import java.util.*;
+
+/**
+ * Read-only map view of path parameters captured as start/end offsets within path.
+ * Parameter values are materialized as substrings only when they are requested.
+ */
+public final class PathParams extends AbstractMap<String, String> {
+
+    private final String path;
+    private final int[] offsets;
+    private final int offset;
+    private final String[] names;
+    private String[] values;
+    private Set<Entry<String, String>> entrySet;
+
+    /**
+     * @param path    matched path
+     * @param offsets array containing [start, end] pairs of captures, -1 when capture did not participate in match
+     * @param offset  position of first capture within offsets array
+     * @param names   names of captures, null for unnamed captures which are not exposed
+     */
+    public PathParams(String path, int[] offsets, int offset, String[] names) {
+        this.path = path;
+        this.offsets = offsets;
+        this.offset = offset;
+        this.names = names;
+    }
+
+    @Override
+    public String get(Object key) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null && names[i].equals(key)) {
+                return value(i);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        for (String name : names) {
+            if (name != null && name.equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (String name : names) {
+            if (name != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        if (entrySet == null) {
+            Set<Entry<String, String>> entries = new LinkedHashSet<>();
+            for (int i = 0; i < names.length; i++) {
+                if (names[i] != null) {
+                    entries.add(new SimpleImmutableEntry<>(names[i], value(i)));
+                }
+            }
+            entrySet = Collections.unmodifiableSet(entries);
+        }
+        return entrySet;
+    }
+
+    private String value(int i) {
+        if (values == null) {
+            values = new String[names.length];
+        }
+        String value = values[i];
+        if (value == null) {
+            int start = offsets[offset + i * 2];
+            if (start < 0) {
+                return null;
+            }
+            value = path.substring(start, offsets[offset + i * 2 + 1]);
+            values[i] = value;
+        }
+        return value;
+    }
+}
@@ -7,20 +7,78 @@ import java.util.regex.Pattern;
 
 public final class PathPattern {
 
+    static final byte SEGMENT_STATIC = 0;
+    static final byte SEGMENT_PARAM = 1;
+    static final byte SEGMENT_GREEDY = 2;
+
+    private static final String REGEX_SPECIAL_CHARS = ".\\[]{}()*+?^$|";
+
     private final String pathPattern;
     private final Pattern regexPattern;
     private final Collection<String> paramNames;
 
+    //segment representation (split by '/'), null when pattern can only be matched using regex
+    private final byte[] segmentTypes;
+    private final String[] segmentValues;
+
+    //names of captured values in order of capture, null for unnamed captures
+    private final String[] captureNames;
+
     public PathPattern(String pathPattern) {
         this.pathPattern = pathPattern;
         this.regexPattern = Pattern.compile(transformToRegex(pathPattern));
         this.paramNames = Collections.unmodifiableSet(getGroupNames(regexPattern));
+
+        String[] segments = pathPattern.split("/", -1);
+        byte[] types = new byte[segments.length];
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (i > 0 && segment.startsWith(":")) {
+                types[i] = SEGMENT_PARAM;
+                segments[i] = segment.substring(1);
+            } else if (i > 0 && segment.startsWith("*")) {
+                types[i] = SEGMENT_GREEDY;
+                segments[i] = segment.substring(1);
+            } else if (indexOfAnyChar(segment, REGEX_SPECIAL_CHARS) == -1) {
+                types[i] = SEGMENT_STATIC;
+            } else {
+                segments = null;
+                types = null;
+                break;
+            }
+        }
+        this.segmentTypes = types;
+        this.segmentValues = segments;
+
+        if (segments != null) {
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < segments.length; i++) {
+                if (types[i] != SEGMENT_STATIC) {
+                    names.add(segments[i].isEmpty() ? null : segments[i]);
+                }
+            }
+            this.captureNames = names.toArray(new String[names.size()]);
+        } else {
+            this.captureNames = paramNames.toArray(new String[paramNames.size()]);
+        }
     }
 
     public PathPattern(Pattern regexPattern) {
         this.pathPattern = regexPattern.pattern();
         this.regexPattern = regexPattern;
         this.paramNames = Collections.unmodifiableSet(getGroupNames(regexPattern));
+        this.segmentTypes = null;
+        this.segmentValues = null;
+        this.captureNames = paramNames.toArray(new String[paramNames.size()]);
+    }
+
+    private static int indexOfAnyChar(String s, String chars) {
+        for (int i = 0; i < s.length(); i++) {
+            if (chars.indexOf(s.charAt(i)) != -1) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     private static int indexOfAny(String s, String... substrs) {
@@ -77,6 +135,22 @@ public final class PathPattern {
         return paramNames;
     }
 
+    /**
+     * @return true when pattern consists only of static, :param and *greedy segments,
+     * so it can be matched segment by segment (e.g. by PathTrie) instead of using regex
+     */
+    public boolean isSegmentPattern() {
+        return segmentTypes != null;
+    }
+
+    byte[] getSegmentTypes() {
+        return segmentTypes;
+    }
+
+    String[] getSegmentValues() {
+        return segmentValues;
+    }
+
     public Matcher matcher(String path) {
         return regexPattern.matcher(path);
     }
@@ -86,6 +160,9 @@ public final class PathPattern {
     }
 
     public boolean matches(String path) {
+        if (segmentTypes != null) {
+            return matchSegments(path, 0, 0, new int[captureNames.length * 2], 0);
+        }
         return matcher(path).matches();
     }
 
@@ -96,11 +173,98 @@ public final class PathPattern {
      * @return Map or null when path not matches pattern
      */
     public Map<String, String> matchParams(String path) {
+        if (captureNames.length == 0) {
+            return matches(path) ? Collections.emptyMap() : null;
+        }
+        int[] offsets = new int[captureNames.length * 2];
+        if (!match(path, offsets, 0)) {
+            return null;
+        }
+        return params(path, offsets, 0);
+    }
+
+    public int getCapturesCount() {
+        return captureNames.length;
+    }
+
+    /**
+     * Tries to match path with pattern and records start and end offsets of captured values,
+     * so no substrings nor maps are created. Segment patterns are matched without using regex.
+     *
+     * @param path    path to match
+     * @param offsets array receiving 2 * {@link #getCapturesCount()} values starting at offset, may be reused between matches
+     * @param offset  position within offsets array
+     * @return true when path matches pattern
+     */
+    public boolean match(String path, int[] offsets, int offset) {
+        if (segmentTypes != null) {
+            return matchSegments(path, 0, 0, offsets, offset);
+        }
+
         Matcher matcher = matcher(path);
         if (!matcher.matches()) {
-            return null;
+            return false;
+        }
+        for (int i = 0; i < captureNames.length; i++) {
+            offsets[offset + i * 2] = matcher.start(captureNames[i]);
+            offsets[offset + i * 2 + 1] = matcher.end(captureNames[i]);
+        }
+        return true;
+    }
+
+    /**
+     * Creates lazy map view of parameters recorded by {@link #match(String, int[], int)}.
+     */
+    public Map<String, String> params(String path, int[] offsets, int offset) {
+        if (captureNames.length == 0) {
+            return Collections.emptyMap();
+        }
+        return new PathParams(path, offsets, offset, captureNames);
+    }
+
+    //same semantics as regex created by transformToRegex(), greedy segments consume as much as possible
+    private boolean matchSegments(String path, int segment, int start, int[] offsets, int offset) {
+        if (segment == segmentTypes.length) {
+            return start > path.length();
+        }
+        if (start > path.length()) {
+            return false;
+        }
+
+        int end = path.indexOf('/', start);
+        if (end == -1) {
+            end = path.length();
+        }
+
+        switch (segmentTypes[segment]) {
+            case SEGMENT_STATIC:
+                String value = segmentValues[segment];
+                return value.length() == end - start
+                        && path.regionMatches(start, value, 0, value.length())
+                        && matchSegments(path, segment + 1, end + 1, offsets, offset);
+
+            case SEGMENT_PARAM:
+                if (end == start) {
+                    return false;
+                }
+                offsets[offset] = start;
+                offsets[offset + 1] = end;
+                return matchSegments(path, segment + 1, end + 1, offsets, offset + 2);
+
+            default:
+                int greedyEnd = path.length();
+                while (true) {
+                    offsets[offset] = start;
+                    offsets[offset + 1] = greedyEnd;
+                    if (matchSegments(path, segment + 1, greedyEnd + 1, offsets, offset + 2)) {
+                        return true;
+                    }
+                    if (greedyEnd == end) {
+                        return false;
+                    }
+                    greedyEnd = path.lastIndexOf('/', greedyEnd - 1);
+                }
         }
-        return matchParams(matcher);
     }
 
     @Override
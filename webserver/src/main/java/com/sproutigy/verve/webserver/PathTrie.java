@@ -0,0 +1,242 @@
+package com.sproutigy.verve.webserver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Segment-based radix tree of path patterns.
+ * Static segments are looked up by hash, :param and *greedy segments are shared between patterns,
+ * so finding all patterns matching a path costs O(path length) regardless of number of patterns.
+ * Only patterns for which {@link PathPattern#isSegmentPattern()} is true can be indexed.
+ *
+ * @param <T> type of value attached to each pattern
+ */
+public final class PathTrie<T> {
+
+    public interface MatchListener<T> {
+        /**
+         * Called once for every value whose pattern matches the path.
+         *
+         * @param value   value attached to matching pattern
+         * @param path    matched path
+         * @param offsets start and end offsets of captured segments within path, [start0, end0, start1, end1, ...]
+         * @param names   names of captured segments (null when unnamed), length equals to number of captures
+         */
+        void onMatch(T value, String path, int[] offsets, String[] names);
+    }
+
+    private final Node<T> root = new Node<>();
+    private final List<Terminal<T>> terminals = new ArrayList<>();
+    private int maxCaptures = 0;
+
+    public boolean insert(PathPattern pattern, T value) {
+        if (!pattern.isSegmentPattern()) {
+            return false;
+        }
+
+        byte[] types = pattern.getSegmentTypes();
+        String[] values = pattern.getSegmentValues();
+
+        Node<T> node = root;
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < types.length; i++) {
+            if (types[i] == PathPattern.SEGMENT_STATIC) {
+                node = node.staticChild(values[i]);
+            } else {
+                if (types[i] == PathPattern.SEGMENT_PARAM) {
+                    if (node.param == null) {
+                        node.param = new Node<>();
+                    }
+                    node = node.param;
+                } else {
+                    if (node.greedy == null) {
+                        node.greedy = new Node<>();
+                    }
+                    node = node.greedy;
+                }
+                names.add(values[i].isEmpty() ? null : values[i]);
+            }
+        }
+
+        Terminal<T> terminal = new Terminal<>(terminals.size(), value, names.toArray(new String[names.size()]));
+        terminals.add(terminal);
+        node.terminals.add(terminal);
+        maxCaptures = Math.max(maxCaptures, names.size());
+        return true;
+    }
+
+    public int size() {
+        return terminals.size();
+    }
+
+    /**
+     * Finds all patterns matching path. Parameters are captured exactly as regular expression
+     * produced by {@link PathPattern#transformToRegex(String)} would capture them (greedy segments first consume as much as possible).
+     */
+    public void find(String path, MatchListener<T> listener) {
+        if (terminals.isEmpty()) {
+            return;
+        }
+
+        int segmentsCount = 1;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '/') {
+                segmentsCount++;
+            }
+        }
+        int[] bounds = new int[segmentsCount + 1];
+        int segment = 1;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '/') {
+                bounds[segment++] = i + 1;
+            }
+        }
+        bounds[segmentsCount] = path.length() + 1;
+
+        new Search<>(path, bounds, segmentsCount, new int[maxCaptures * 2], new boolean[terminals.size()], listener).visit(root, 0, 0);
+    }
+
+
+    private static final class Search<T> {
+        private final String path;
+        private final int[] bounds; //segment i spans [bounds[i], bounds[i+1] - 1)
+        private final int segmentsCount;
+        private final int[] captures;
+        private final boolean[] reported;
+        private final MatchListener<T> listener;
+
+        Search(String path, int[] bounds, int segmentsCount, int[] captures, boolean[] reported, MatchListener<T> listener) {
+            this.path = path;
+            this.bounds = bounds;
+            this.segmentsCount = segmentsCount;
+            this.captures = captures;
+            this.reported = reported;
+            this.listener = listener;
+        }
+
+        void visit(Node<T> node, int segment, int capturesCount) {
+            if (segment == segmentsCount) {
+                for (Terminal<T> terminal : node.terminals) {
+                    if (!reported[terminal.id]) {
+                        reported[terminal.id] = true;
+                        listener.onMatch(terminal.value, path, captures, terminal.names);
+                    }
+                }
+                return;
+            }
+
+            int start = bounds[segment];
+            int end = bounds[segment + 1] - 1;
+
+            if (node.staticKeys != null) {
+                Node<T> child = node.findStaticChild(path, start, end);
+                if (child != null) {
+                    visit(child, segment + 1, capturesCount);
+                }
+            }
+
+            if (node.param != null && end > start) {
+                captures[capturesCount * 2] = start;
+                captures[capturesCount * 2 + 1] = end;
+                visit(node.param, segment + 1, capturesCount + 1);
+            }
+
+            if (node.greedy != null) {
+                for (int last = segmentsCount - 1; last >= segment; last--) {
+                    captures[capturesCount * 2] = start;
+                    captures[capturesCount * 2 + 1] = bounds[last + 1] - 1;
+                    visit(node.greedy, last + 1, capturesCount + 1);
+                }
+            }
+        }
+    }
+
+    private static final class Terminal<T> {
+        final int id;
+        final T value;
+        final String[] names;
+
+        Terminal(int id, T value, String[] names) {
+            this.id = id;
+            this.value = value;
+            this.names = names;
+        }
+    }
+
+    private static final class Node<T> {
+        //open addressing hash table of static children, hashed the same way as String.hashCode()
+        String[] staticKeys;
+        Node<T>[] staticNodes;
+        int staticCount;
+
+        Node<T> param;
+        Node<T> greedy;
+        final List<Terminal<T>> terminals = new ArrayList<>(1);
+
+        Node<T> staticChild(String key) {
+            if (staticKeys == null) {
+                resize(4);
+            }
+            int mask = staticKeys.length - 1;
+            int i = key.hashCode() & mask;
+            while (staticKeys[i] != null) {
+                if (staticKeys[i].equals(key)) {
+                    return staticNodes[i];
+                }
+                i = (i + 1) & mask;
+            }
+
+            if ((staticCount + 1) * 2 > staticKeys.length) {
+                resize(staticKeys.length * 2);
+                return staticChild(key);
+            }
+
+            Node<T> child = new Node<>();
+            staticKeys[i] = key;
+            staticNodes[i] = child;
+            staticCount++;
+            return child;
+        }
+
+        Node<T> findStaticChild(String path, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + path.charAt(i);
+            }
+            int length = end - start;
+            int mask = staticKeys.length - 1;
+            int i = hash & mask;
+            String key;
+            while ((key = staticKeys[i]) != null) {
+                if (key.length() == length && key.regionMatches(0, path, start, length)) {
+                    return staticNodes[i];
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void resize(int capacity) {
+            String[] oldKeys = staticKeys;
+            Node<T>[] oldNodes = staticNodes;
+            staticKeys = new String[capacity];
+            staticNodes = (Node<T>[]) new Node[capacity];
+            staticCount = 0;
+            if (oldKeys != null) {
+                int mask = capacity - 1;
+                for (int j = 0; j < oldKeys.length; j++) {
+                    if (oldKeys[j] != null) {
+                        int i = oldKeys[j].hashCode() & mask;
+                        while (staticKeys[i] != null) {
+                            i = (i + 1) & mask;
+                        }
+                        staticKeys[i] = oldKeys[j];
+                        staticNodes[i] = oldNodes[j];
+                        staticCount++;
+                    }
+                }
+            }
+        }
+    }
+}
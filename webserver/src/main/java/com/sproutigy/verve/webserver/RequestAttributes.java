@@ -0,0 +1,45 @@
+package com.sproutigy.verve.webserver;
+
+import java.util.Arrays;
+
+/**
+ * Request scoped attributes, kept in an array indexed by {@link AttributeKey}.
+ * Not thread-safe: attributes belong to a single request, which is processed by one thread at a time.
+ */
+public final class RequestAttributes {
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] values = EMPTY;
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(AttributeKey<T> key) {
+        Object[] values = this.values;
+        return key.index < values.length ? (T) values[key.index] : null;
+    }
+
+    public <T> void set(AttributeKey<T> key, T value) {
+        if (key.index >= values.length) {
+            if (value == null) {
+                return;
+            }
+            values = Arrays.copyOf(values, Math.max(key.index + 1, AttributeKey.count()));
+        }
+        values[key.index] = key.getType().cast(value);
+    }
+
+    public <T> T remove(AttributeKey<T> key) {
+        T value = get(key);
+        if (value != null) {
+            values[key.index] = null;
+        }
+        return value;
+    }
+
+    public boolean has(AttributeKey<?> key) {
+        return get(key) != null;
+    }
+
+    public void clear() {
+        Arrays.fill(values, null);
+    }
+}
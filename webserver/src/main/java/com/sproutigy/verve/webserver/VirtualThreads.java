@@ -0,0 +1,67 @@
+package com.sproutigy.verve.webserver;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads (Java 21+) without compile time dependency on them,
+ * so the library still runs on Java 8.
+ * Virtual threads are opt-in, enabled by JVM parameter <code>-Dverve.virtualthreads=true</code>.
+ */
+@Slf4j
+public final class VirtualThreads {
+
+    public static final String PROPERTY = "verve.virtualthreads";
+
+    private static final Method NEW_EXECUTOR_METHOD = findNewExecutorMethod();
+    private static final boolean ENABLED = Boolean.getBoolean(PROPERTY) && checkSupported();
+
+    private VirtualThreads() {
+    }
+
+    private static Method findNewExecutorMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static boolean checkSupported() {
+        if (!isSupported()) {
+            log.warn("Virtual threads requested by {} property but not supported by Java {}, using platform threads", PROPERTY, System.getProperty("java.version"));
+            return false;
+        }
+        return true;
+    }
+
+    public static boolean isSupported() {
+        return NEW_EXECUTOR_METHOD != null;
+    }
+
+    /**
+     * @return true when virtual threads are supported and enabled by JVM parameter
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Creates executor that starts new virtual thread for each task.
+     *
+     * @throws UnsupportedOperationException when virtual threads are not supported
+     */
+    public static ExecutorService newExecutor() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by Java " + System.getProperty("java.version"));
+        }
+        try {
+            return (ExecutorService) NEW_EXECUTOR_METHOD.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Could not create virtual thread executor", e);
+        }
+    }
+}
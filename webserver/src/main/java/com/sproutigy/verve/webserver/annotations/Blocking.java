@@ -0,0 +1,16 @@
+package com.sproutigy.verve.webserver.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks handler as blocking, so it is always run on worker thread.
+ * Applies to all routes of the handler that do not declare execution explicitly.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Blocking {
+    /**
+     * @return name of worker pool, default worker pool when empty
+     */
+    String value() default "";
+}
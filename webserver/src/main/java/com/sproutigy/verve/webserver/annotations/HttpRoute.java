@@ -1,5 +1,7 @@
 package com.sproutigy.verve.webserver.annotations;
 
+import com.sproutigy.verve.webserver.HandlerExecution;
+
 import java.lang.annotation.*;
 
 @Repeatable(HttpRoutes.class)
@@ -11,4 +13,6 @@ public @interface HttpRoute {
     int order() default 0;
     Class inputType() default void.class;
     Class outputType() default void.class;
+    HandlerExecution execution() default HandlerExecution.AUTO;
+    String workerPool() default "";
 }
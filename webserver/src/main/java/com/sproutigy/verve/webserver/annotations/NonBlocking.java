@@ -0,0 +1,13 @@
+package com.sproutigy.verve.webserver.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks handler as non-blocking, so it is run directly on dispatching thread,
+ * together with Callable or Runnable it returns.
+ * Applies to all routes of the handler that do not declare execution explicitly.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NonBlocking {
+}
@@ -1,12 +1,20 @@
 package com.sproutigy.verve.webserver.auth;
 
+import com.sproutigy.verve.webserver.AttributeKey;
 import com.sproutigy.verve.webserver.HttpRequestContext;
 
 public class AuthUtil {
 
     private AuthUtil() { }
 
-    private static final String ATTRIBUTE = "auth";
+    /**
+     * @deprecated read authenticated id by {@link #getId(HttpRequestContext)} or {@link #ID} key,
+     * reading it from general purpose attributes under this name is still supported, it will be removed
+     */
+    @Deprecated
+    public static final String ATTRIBUTE = "auth";
+
+    public static final AttributeKey<String> ID = AttributeKey.of(ATTRIBUTE, String.class);
 
 
     public static boolean isAuthenticated(HttpRequestContext ctx) {
@@ -18,10 +26,10 @@ public class AuthUtil {
     }
 
     public static String getId(HttpRequestContext ctx) {
-        return ctx.getAttributes().get(ATTRIBUTE);
+        return ctx.getAttribute(ID);
     }
 
     public static void setId(HttpRequestContext ctx, String id) {
-        ctx.getAttributes().set(ATTRIBUTE, id);
+        ctx.setAttribute(ID, id);
     }
 }
@@ -1,6 +1,7 @@
 package com.sproutigy.verve.webserver.handlers;
 
 import com.google.inject.Inject;
+import com.sproutigy.verve.webserver.AttributeKey;
 import com.sproutigy.verve.webserver.HttpHandler;
 import com.sproutigy.verve.webserver.HttpRequestContext;
 import com.sproutigy.verve.webserver.HttpUtil;
@@ -22,15 +23,22 @@ public class AuthTokenHttpHandler implements HttpHandler {
 
     public static final String COOKIE_NAME = "AUTH-TOKEN";
 
+    /**
+     * @deprecated read verified token by {@link #getVerifiedTokenString(HttpRequestContext)} or {@link #TOKEN} key,
+     * reading it from general purpose attributes under this name is still supported, it will be removed
+     */
+    @Deprecated
     public static final String ATTRIBUTE = "auth-token";
 
+    public static final AttributeKey<String> TOKEN = AttributeKey.of(ATTRIBUTE, String.class);
+
 
     @Override
     public Object handle(HttpRequestContext ctx) throws Exception {
         String token = getClientTokenString(ctx);
         if (token != null) {
             if (tokenService.verifyToken(token)) {
-                ctx.getAttributes().set(ATTRIBUTE, token);
+                ctx.setAttribute(TOKEN, token);
                 String id = tokenService.getIdFromToken(token);
                 if (id != null) {
                     AuthUtil.setId(ctx, id);
@@ -41,7 +49,7 @@ public class AuthTokenHttpHandler implements HttpHandler {
     }
 
     public static String getVerifiedTokenString(HttpRequestContext ctx) {
-        return ctx.getAttributes().get(ATTRIBUTE);
+        return ctx.getAttribute(TOKEN);
     }
 
 
@@ -12,10 +12,13 @@ import com.sproutigy.commons.jsonright.jackson.JSON;
 import com.sproutigy.verve.webserver.HttpHandler;
 import com.sproutigy.verve.webserver.HttpRequest;
 import com.sproutigy.verve.webserver.HttpRequestContext;
+import com.sproutigy.verve.webserver.HttpRequestScope;
 import com.sproutigy.verve.webserver.HttpUtil;
 import com.sproutigy.verve.webserver.exceptions.BadRequestHttpException;
 import com.sproutigy.verve.webserver.exceptions.MethodNotAllowedHttpException;
 import com.sproutigy.verve.webserver.exceptions.UnsupportedMediaType;
+import com.sproutigy.verve.webserver.serialization.Codec;
+import com.sproutigy.verve.webserver.serialization.SerializationService;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
@@ -24,14 +27,15 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 public class JSONRPCHttpHandler implements HttpHandler {
@@ -42,6 +46,11 @@ public class JSONRPCHttpHandler implements HttpHandler {
     public static final String FIELD_METHOD = "method";
     public static final String FIELD_PARAMS = "params";
     public static final String FIELD_ID = "id";
+    public static final String FIELD_RESULT = "result";
+
+    public static final int ERROR_INVALID_REQUEST = -32600;
+    public static final int ERROR_METHOD_NOT_FOUND = -32601;
+    public static final int ERROR_SERVER_BUSY = -32000;
 
     @Data
     public class RPCReturn {
@@ -73,9 +82,15 @@ public class JSONRPCHttpHandler implements HttpHandler {
     @Getter
     private Object instance;
 
-    private ConcurrentHashMap<String, Method> methods = new ConcurrentHashMap<>();
+    @Getter
+    private final RPCMethodIndex methodIndex;
 
-    private ExecutorService executorService = Executors.newCachedThreadPool();
+    /**
+     * Executor of RPC calls, view of bounded executor shared by all handlers by default
+     * (shutting it down does not affect other handlers).
+     */
+    @Getter @Setter
+    private ExecutorService executorService = RPCExecutor.sharedView();
 
     @Getter @Setter
     private long payloadLimit = 1024*1024; // 1 MB
@@ -87,21 +102,50 @@ public class JSONRPCHttpHandler implements HttpHandler {
         }
     }
 
-    @Getter
-    private int maxConcurrentCalls = 1; //TODO
+    public static final int DEFAULT_BATCH_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Maximum number of calls of this handler executed or queued at once, further calls are rejected.
+     * Also limits number of calls of single batch request executed in parallel.
+     * Not limited when 0 or less (calls are still bounded by executor).
+     */
+    @Getter @Setter
+    private int maxConcurrentCalls = 0;
+
+    private static final AtomicInteger NO_METHOD_PERMIT = new AtomicInteger();
+
+    private final AtomicInteger activeCalls = new AtomicInteger();
+    private final Map<String, Integer> methodConcurrencyLimits = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> activeCallsByMethod = new ConcurrentHashMap<>();
 
     private boolean allowGET = true;
 
     public JSONRPCHttpHandler(Object instance) {
         this.instance = instance;
+        this.methodIndex = new RPCMethodIndex(compileInvokers(instance));
     }
 
     public JSONRPCHttpHandler(Object instance, boolean allowGET, int maxConcurrentCalls) {
-        this.instance = instance;
+        this(instance);
         this.allowGET = allowGET;
         this.maxConcurrentCalls = maxConcurrentCalls;
     }
 
+    private static List<RPCMethodInvoker> compileInvokers(Object instance) {
+        List<RPCMethodInvoker> invokers = new ArrayList<>();
+        for (Method method : instance.getClass().getMethods()) {
+            if (UNCALLABLE_METHODS.contains(method.getName()) || !Modifier.isPublic(method.getModifiers()) || method.isBridge()) {
+                continue;
+            }
+            try {
+                invokers.add(new RPCMethodInvoker(instance, method));
+            } catch (IllegalAccessException | RuntimeException e) {
+                log.warn("RPC method {}.{} is not accessible", method.getDeclaringClass().getName(), method.getName(), e);
+            }
+        }
+        return invokers;
+    }
+
 
     @Override
     public Object handle(HttpRequestContext ctx) throws Exception {
@@ -126,7 +170,7 @@ public class JSONRPCHttpHandler implements HttpHandler {
                 methodName = req.getQueryParamRequired(FIELD_METHOD);
                 String params = req.getQueryParam(FIELD_PARAMS);
                 id = req.getQueryParam(FIELD_ID);
-                jsonParams = params != null ? JSON.fromString(params).node() : null;
+                jsonParams = params != null ? getSerializationService(ctx).readTree(params) : null;
             } else {
                 String p = req.getPath();
                 methodName = p.substring(p.lastIndexOf('/') + 1);
@@ -152,7 +196,7 @@ public class JSONRPCHttpHandler implements HttpHandler {
                         JsonNode jsonNode;
 
                         if (val.startsWith("{") || val.startsWith("[") || val.startsWith("\"") || val.equals("null")) {
-                            jsonNode = JSON.fromString(val).node();
+                            jsonNode = getSerializationService(ctx).readTree(val);
                         } else {
                             jsonNode = new TextNode(val);
                         }
@@ -168,19 +212,20 @@ public class JSONRPCHttpHandler implements HttpHandler {
                 }
             }
 
-            Method method = getMethod(methodName, jsonParams);
-            if (method == null) {
+            RPCMethodInvoker invoker = getInvoker(methodName, jsonParams);
+            if (invoker == null) {
                 throw new BadRequestHttpException();
             }
 
-            if (Modifier.isPublic(method.getModifiers()) && !isAllowedGET(method)) {
+            if (!isAllowedGET(invoker.getMethod())) {
                 throw new MethodNotAllowedHttpException();
             }
 
-            return executeRPC(ctx, jsonrpc, method, jsonParams, id);
+            return executeRPC(ctx, jsonrpc, invoker, jsonParams, id);
 
         } else if (Objects.equals(httpMethod, HttpMethod.POST.toString())) {
-            if (!req.getHeaderRequired(HttpHeaderNames.CONTENT_TYPE).startsWith("application/json")) {
+            Codec codec = getSerializationService(ctx).getCodec(req.getHeaderRequired(HttpHeaderNames.CONTENT_TYPE));
+            if (codec == null) {
                 throw new UnsupportedMediaType();
             }
 
@@ -191,29 +236,44 @@ public class JSONRPCHttpHandler implements HttpHandler {
                     String methodName;
                     JsonNode jsonParams;
                     String id = null;
-                    JSON json = JSON.fromBytes(data.asByteArray());
+                    JsonNode json;
+                    try {
+                        json = codec.getObjectMapper().readTree(data.asByteArray(false));
+                    } catch (Exception e) {
+                        deferred.reject(new BadRequestHttpException());
+                        return;
+                    }
+                    if (json.isArray()) {
+                        deferred.bindTo(executeBatch(ctx, json));
+                        return;
+                    }
+
                     String jsonrpc = null;
-                    if (json.nodeObject().has(FIELD_JSONRPC)) {
-                        jsonrpc = json.nodeObject().get(FIELD_JSONRPC).asText();
-                        methodName = json.nodeObject().get(FIELD_METHOD).asText();
-                        jsonParams = json.nodeObject().get(FIELD_PARAMS);
-                        id = json.nodeObject().get(FIELD_ID).asText();
+                    if (json.has(FIELD_JSONRPC)) {
+                        jsonrpc = json.get(FIELD_JSONRPC).asText();
+                        methodName = json.get(FIELD_METHOD).asText();
+                        jsonParams = json.get(FIELD_PARAMS);
+                        id = json.get(FIELD_ID).asText();
                     } else {
                         methodName = HttpUtil.urldecode(req.getQueryString());
-                        jsonParams = json.nodeObject();
+                        jsonParams = json;
                         if ((methodName == null || methodName.isEmpty()) && jsonParams.has("_")) {
                             methodName = jsonParams.get("_").asText();
                             ((ObjectNode)jsonParams).remove("_");
                         }
                     }
 
-                    Method method = getMethod(methodName, jsonParams);
-                    if (method == null) {
+                    RPCMethodInvoker invoker = getInvoker(methodName, jsonParams);
+                    if (invoker == null) {
                         deferred.reject(new BadRequestHttpException());
                         return;
                     }
 
-                    deferred.bindTo(executeRPC(ctx, jsonrpc, method, jsonParams, id));
+                    try {
+                        deferred.bindTo(executeRPC(ctx, jsonrpc, invoker, jsonParams, id));
+                    } catch (RejectedExecutionException e) {
+                        deferred.reject(e);
+                    }
                 } else {
                     deferred.reject(cause);
                 }
@@ -225,25 +285,32 @@ public class JSONRPCHttpHandler implements HttpHandler {
         }
     }
 
-    protected Method getMethod(String methodName, JsonNode params) {
-        //TODO: check param names
-
-        int paramsCount = params == null ? 0 : params.size();
-        return methods.computeIfAbsent(methodName, s -> {
-            Method[] methods = instance.getClass().getMethods();
-            for (int i = 0; i < methods.length; i++) {
-                Method someMethod = methods[i];
-                if (someMethod.getName().equals(s) && !UNCALLABLE_METHODS.contains(s)) {
-                    if (someMethod.getParameterCount() == paramsCount) {
-                        if (Modifier.isPublic(someMethod.getModifiers())) {
-                            someMethod.setAccessible(true);
-                            return someMethod;
-                        }
-                    }
-                }
-            }
-            return null;
-        });
+    /**
+     * Limits number of calls of RPC method (all its overloads) executed or queued at once, further calls are rejected.
+     *
+     * @param limit maximum number of calls, not limited when 0 or less
+     */
+    public void setMethodConcurrencyLimit(String methodName, int limit) {
+        if (limit > 0) {
+            methodConcurrencyLimits.put(methodName, limit);
+        } else {
+            methodConcurrencyLimits.remove(methodName);
+        }
+    }
+
+    public int getMethodConcurrencyLimit(String methodName) {
+        return methodConcurrencyLimits.getOrDefault(methodName, 0);
+    }
+
+    /**
+     * @return invoker of method matching name and params or null when there is none
+     */
+    protected RPCMethodInvoker getInvoker(String methodName, JsonNode params) {
+        return methodIndex.resolve(methodName, params);
+    }
+
+    protected SerializationService getSerializationService(HttpRequestContext ctx) {
+        return ctx.getServer().getSerializationService();
     }
 
     protected boolean isAllowedGET(Method method) {
@@ -281,64 +348,291 @@ public class JSONRPCHttpHandler implements HttpHandler {
         return 0;
     }
 
-    protected Future executeRPC(HttpRequestContext ctx, String jsonrpc, Method method, JsonNode jsonParams, String id) {
-        return executorService.submit(() -> {
-            HttpRequestContext.set(ctx);
+    /**
+     * @throws RejectedExecutionException when handler, method or executor is saturated (answered with 503)
+     */
+    protected Future executeRPC(HttpRequestContext ctx, String jsonrpc, RPCMethodInvoker invoker, JsonNode jsonParams, String id) {
+        return submitCall(ctx, invoker, () -> {
+            RPCReturn result = invokeRPC(ctx, jsonrpc, invoker, jsonParams, id);
+            if (result.getResult() == null && result.getError() == null) {
+                ctx.getResponse().status(HttpResponseStatus.NO_CONTENT).end();
+                return null;
+            } else {
+                return result;
+            }
+        });
+    }
 
-            RPCReturn result;
-            Object[] params = null;
-            try {
-                beforeCall(ctx, method, id);
+    /**
+     * Submits call to executor, unless concurrency limits of handler or method are reached.
+     * Call is run within scope of the request, so {@link HttpRequestContext#get()} is available.
+     *
+     * @throws RejectedExecutionException when call is shed
+     */
+    protected <T> Future<T> submitCall(HttpRequestContext ctx, RPCMethodInvoker invoker, Callable<T> call) {
+        return submitCall(ctx, invoker, call, null, false);
+    }
 
-                int count = method.getParameterCount();
-                params = new Object[count];
-                Class[] types = method.getParameterTypes();
+    /**
+     * @param reserved true when handler permit is already reserved by caller (batch), so only method limit is checked
+     */
+    private <T> Future<T> submitCall(HttpRequestContext ctx, RPCMethodInvoker invoker, Callable<T> call, Runnable afterRelease, boolean reserved) {
+        String methodName = invoker.getMethod().getName();
+        AtomicInteger methodPermit = tryAcquireCall(methodName, reserved);
+        if (methodPermit == null) {
+            throw new RejectedExecutionException("Too many concurrent calls of RPC method " + invoker);
+        }
+        try {
+            Callable<T> scopedCall = HttpRequestScope.wrap(ctx, call);
+            return executorService.submit(() -> {
+                try {
+                    return scopedCall.call();
+                } finally {
+                    releaseCall(methodPermit, reserved);
+                    if (afterRelease != null) {
+                        afterRelease.run();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            releaseCall(methodPermit, reserved);
+            throw e;
+        }
+    }
 
-                if (count > 0 && jsonParams != null) {
-                    Iterator<JsonNode> elementsIterator = jsonParams.elements();
-                    for (int i = 0; i < count; i++) {
-                        Class clazz = types[i];
-                        JsonNode jsonParam;
+    /**
+     * @return method counter the permit was taken from, {@link #NO_METHOD_PERMIT} when method is not limited,
+     * null when call is rejected
+     */
+    private AtomicInteger tryAcquireCall(String methodName, boolean reserved) {
+        if (!reserved && !tryIncrement(activeCalls, maxConcurrentCalls)) {
+            return null;
+        }
+        Integer limit = methodConcurrencyLimits.get(methodName);
+        if (limit == null) {
+            return NO_METHOD_PERMIT;
+        }
+        AtomicInteger methodCalls = activeCallsByMethod.computeIfAbsent(methodName, name -> new AtomicInteger());
+        if (!tryIncrement(methodCalls, limit)) {
+            if (!reserved) {
+                activeCalls.decrementAndGet();
+            }
+            return null;
+        }
+        return methodCalls;
+    }
 
-                        JsonNode element = null;
-                        if (elementsIterator.hasNext()) {
-                            element = elementsIterator.next();
-                        }
+    private void releaseCall(AtomicInteger methodPermit, boolean reserved) {
+        if (!reserved) {
+            activeCalls.decrementAndGet();
+        }
+        if (methodPermit != NO_METHOD_PERMIT) {
+            methodPermit.decrementAndGet();
+        }
+    }
 
-                        if (jsonParams.isArray()) {
-                            jsonParam = jsonParams.get(i);
-                        } else {
-                            String paramName = method.getParameters()[i].getName();
-                            jsonParam = jsonParams.get(paramName);
-                            if (jsonParam == null) {
-                                jsonParam = element;
-                            }
-                        }
+    /**
+     * Reserves up to count handler permits at once.
+     *
+     * @return number of reserved permits, 0 when handler is saturated
+     */
+    private int reserveCalls(int count) {
+        while (true) {
+            int current = activeCalls.get();
+            int reserved = maxConcurrentCalls > 0 ? Math.min(count, maxConcurrentCalls - current) : count;
+            if (reserved <= 0) {
+                return 0;
+            }
+            if (activeCalls.compareAndSet(current, current + reserved)) {
+                return reserved;
+            }
+        }
+    }
 
-                        params[i] = JSON.fromNode(jsonParam).deserialize(clazz);
-                    }
+    private static boolean tryIncrement(AtomicInteger counter, int limit) {
+        while (true) {
+            int current = counter.get();
+            if (limit > 0 && current >= limit) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Executes JSON-RPC 2.0 batch, calls are run in parallel (up to maxConcurrentCalls at once).
+     * Handler permits for the whole parallel window are reserved up front, so calls of a batch queue for them
+     * instead of competing with concurrent requests. Batch is rejected (503) when no permit is available.
+     * Resolves to list of results, in order of calls, without results of notifications (calls without id).
+     * Empty batch is answered with single Invalid Request error.
+     */
+    protected Promise<Object> executeBatch(HttpRequestContext ctx, JsonNode batch) {
+        Deferred<Object> deferred = Promise.defer();
+        if (batch.size() == 0) {
+            deferred.resolve(toBatchResponse(ctx, errorReturn(JSON_RPC_SUPPORTED_VERSION, null, ERROR_INVALID_REQUEST, "Invalid Request")));
+            return deferred.getPromise();
+        }
+        new BatchExecution(ctx, batch, deferred).start();
+        return deferred.getPromise();
+    }
+
+    /**
+     * Invokes method, expected to be run within scope of the request (see {@link #submitCall}).
+     */
+    protected RPCReturn invokeRPC(HttpRequestContext ctx, String jsonrpc, RPCMethodInvoker invoker, JsonNode jsonParams, String id) {
+        Method method = invoker.getMethod();
+        RPCReturn result;
+        Object[] params = null;
+        try {
+            beforeCall(ctx, method, id);
+
+            params = invoker.bind(jsonParams, getSerializationService(ctx));
+            Object ret = invoker.invoke(params);
+            result = afterCall(ctx, jsonrpc, method, id, true, ret, null);
+        } catch(Throwable e) {
+            log.error("RPC method invocation {}.{} with parameters ({}) error", method.getDeclaringClass().getName(), method.getName(), params, e);
+            result = afterCall(ctx, jsonrpc, method, id, false, null, e);
+        }
+        return result;
+    }
+
+    protected RPCReturn errorReturn(String jsonrpc, String id, int code, String message) {
+        RPCError error = new RPCError();
+        error.setCode(code);
+        error.setMessage(message);
+
+        RPCReturn ret = new RPCReturn();
+        ret.setJsonrpc(jsonrpc);
+        ret.setError(error);
+        ret.setId(id);
+        return ret;
+    }
+
+    /**
+     * Batch responses always carry id (null when unknown) and, unless failed, result (null for void methods).
+     */
+    private Object toBatchResponse(HttpRequestContext ctx, RPCReturn ret) {
+        if (ret.getId() != null && (ret.getResult() != null || ret.getError() != null)) {
+            return ret;
+        }
+        ObjectNode node = getSerializationService(ctx).getObjectMapper().valueToTree(ret);
+        if (ret.getError() == null && !node.has(FIELD_RESULT)) {
+            node.putNull(FIELD_RESULT);
+        }
+        if (!node.has(FIELD_ID)) {
+            node.putNull(FIELD_ID);
+        }
+        return node;
+    }
+
+    private final class BatchExecution {
+        private final HttpRequestContext ctx;
+        private final JsonNode batch;
+        private final Deferred<Object> deferred;
+        private final RPCReturn[] results;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private int reserved;
+
+        BatchExecution(HttpRequestContext ctx, JsonNode batch, Deferred<Object> deferred) {
+            this.ctx = ctx;
+            this.batch = batch;
+            this.deferred = deferred;
+            this.results = new RPCReturn[batch.size()];
+            this.remaining = new AtomicInteger(batch.size());
+        }
+
+        void start() {
+            int parallelism = maxConcurrentCalls > 0 ? maxConcurrentCalls : DEFAULT_BATCH_PARALLELISM;
+            reserved = reserveCalls(Math.min(parallelism, results.length));
+            if (reserved == 0) {
+                deferred.reject(new RejectedExecutionException("Too many concurrent calls of RPC handler"));
+                return;
+            }
+            for (int i = 0; i < reserved; i++) {
+                submitNext();
+            }
+        }
+
+        private void submitNext() {
+            int index;
+            while ((index = next.getAndIncrement()) < results.length) {
+                RPCReturn immediate = submit(index);
+                if (immediate == null) {
+                    //submitted, batch continues when the call completes
+                    return;
                 }
+                results[index] = immediate;
+                if (remaining.decrementAndGet() == 0) {
+                    finish();
+                    return;
+                }
+            }
+        }
 
-                try {
-                    Object ret = method.invoke(instance, params);
-                    result = afterCall(ctx, jsonrpc, method, id, true, ret, null);
-                } catch (InvocationTargetException e) {
-                    throw e.getCause();
+        private void completed() {
+            if (remaining.decrementAndGet() == 0) {
+                finish();
+            } else {
+                submitNext();
+            }
+        }
+
+        /**
+         * @return result when call could not be submitted, null when submitted
+         */
+        private RPCReturn submit(int index) {
+            JsonNode call = batch.get(index);
+            if (call == null || !call.isObject()) {
+                return errorReturn(JSON_RPC_SUPPORTED_VERSION, null, ERROR_INVALID_REQUEST, "Invalid Request");
+            }
+            String jsonrpc = text(call, FIELD_JSONRPC);
+            String id = text(call, FIELD_ID);
+            String methodName = text(call, FIELD_METHOD);
+            JsonNode jsonParams = call.get(FIELD_PARAMS);
+
+            RPCMethodInvoker invoker = getInvoker(methodName, jsonParams);
+            if (invoker == null) {
+                return errorReturn(jsonrpc, id, ERROR_METHOD_NOT_FOUND, "Method not found");
+            }
+
+            try {
+                submitCall(ctx, invoker, () -> {
+                    results[index] = invokeRPC(ctx, jsonrpc, invoker, jsonParams, id);
+                    return null;
+                }, this::completed, true);
+                return null;
+            } catch (RejectedExecutionException e) {
+                log.warn("RPC call {} rejected: {}", invoker, e.getMessage());
+                return errorReturn(jsonrpc, id, ERROR_SERVER_BUSY, "Server busy");
+            }
+        }
+
+        private void finish() {
+            activeCalls.addAndGet(-reserved);
+            List<Object> responses = new ArrayList<>(results.length);
+            for (int i = 0; i < results.length; i++) {
+                JsonNode call = batch.get(i);
+                boolean notification = call != null && call.isObject() && !call.has(FIELD_ID);
+                if (!notification) {
+                    responses.add(toBatchResponse(ctx, results[i]));
                 }
-            } catch(Throwable e) {
-                log.error("RPC method invocation {}.{} with parameters ({}) error", method.getDeclaringClass().getName(), method.getName(), params, e);
-                result = afterCall(ctx, jsonrpc, method, id, false, null, e);
-            } finally {
-                HttpRequestContext.remove();
             }
 
-            if (result.getResult() == null && result.getError() == null) {
+            if (responses.isEmpty()) {
                 ctx.getResponse().status(HttpResponseStatus.NO_CONTENT).end();
-                return null;
+                deferred.resolve(null);
             } else {
-                return result;
+                deferred.resolve(responses);
             }
-        });
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node != null ? node.get(field) : null;
+        return value != null && !value.isNull() ? value.asText() : null;
     }
 
 }
@@ -0,0 +1,265 @@
+package com.sproutigy.verve.webserver.handlers;
+
+import com.sproutigy.verve.webserver.VirtualThreads;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded executor of RPC calls, shared by all {@link JSONRPCHttpHandler} instances by default.
+ * At most maxThreads calls are executed at once, further calls wait in FIFO queue of maxQueueSize.
+ * Calls submitted when queue is full are rejected with {@link RejectedExecutionException}.
+ * Limits can be set by JVM parameters <code>-Dverve.rpc.maxthreads</code> and <code>-Dverve.rpc.maxqueuesize</code>.
+ */
+public class RPCExecutor extends AbstractExecutorService {
+
+    public static final String MAX_THREADS_PROPERTY = "verve.rpc.maxthreads";
+    public static final String MAX_QUEUE_SIZE_PROPERTY = "verve.rpc.maxqueuesize";
+
+    public static final int DEFAULT_MAX_THREADS = Runtime.getRuntime().availableProcessors() * 8;
+    public static final int DEFAULT_MAX_QUEUE_SIZE = 1024;
+
+    private static volatile RPCExecutor shared;
+
+    @Getter
+    private final int maxThreads;
+
+    @Getter
+    private final int maxQueueSize;
+
+    private final ExecutorService executor;
+    private final Semaphore admission; //virtual threads only, platform threads are bounded by pool itself
+    private final Semaphore running;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public RPCExecutor(int maxThreads, int maxQueueSize) {
+        this(maxThreads, maxQueueSize, VirtualThreads.isEnabled());
+    }
+
+    public RPCExecutor(int maxThreads, int maxQueueSize, boolean virtualThreads) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("maxThreads must be positive");
+        }
+        this.maxThreads = maxThreads;
+        this.maxQueueSize = maxQueueSize;
+
+        if (virtualThreads) {
+            this.executor = VirtualThreads.newExecutor();
+            this.admission = new Semaphore(maxThreads + Math.max(0, maxQueueSize));
+            this.running = new Semaphore(maxThreads, true);
+        } else {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                    maxQueueSize > 0 ? new ArrayBlockingQueue<>(maxQueueSize, true) : new SynchronousQueue<>(true),
+                    new RPCThreadFactory());
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+            this.admission = null;
+            this.running = null;
+        }
+    }
+
+    public static RPCExecutor getShared() {
+        if (shared == null) {
+            synchronized (RPCExecutor.class) {
+                if (shared == null) {
+                    shared = new RPCExecutor(
+                            Integer.getInteger(MAX_THREADS_PROPERTY, DEFAULT_MAX_THREADS),
+                            Integer.getInteger(MAX_QUEUE_SIZE_PROPERTY, DEFAULT_MAX_QUEUE_SIZE));
+                }
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * @return view of shared executor, shutting it down only stops submitting through the view
+     * and does not affect the shared executor
+     */
+    public static ExecutorService sharedView() {
+        return new SharedView(getShared());
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (admission != null && !admission.tryAcquire()) {
+            rejected.increment();
+            throw new RejectedExecutionException("RPC executor queue is full");
+        }
+
+        queued.incrementAndGet();
+        Runnable meteredCommand = () -> {
+            boolean acquired = false;
+            try {
+                if (running != null) {
+                    running.acquire();
+                    acquired = true;
+                }
+                queued.decrementAndGet();
+                active.incrementAndGet();
+                try {
+                    command.run();
+                } finally {
+                    active.decrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                queued.decrementAndGet();
+                Thread.currentThread().interrupt();
+            } finally {
+                if (acquired) {
+                    running.release();
+                }
+                if (admission != null) {
+                    admission.release();
+                }
+            }
+        };
+
+        try {
+            executor.execute(meteredCommand);
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            if (admission != null) {
+                admission.release();
+            }
+            rejected.increment();
+            throw new RejectedExecutionException("RPC executor queue is full", e);
+        }
+    }
+
+    /**
+     * @return number of calls waiting for a thread
+     */
+    public int getQueued() {
+        return queued.get();
+    }
+
+    /**
+     * @return number of calls being executed
+     */
+    public int getActive() {
+        return active.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public boolean isVirtual() {
+        return admission != null;
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return executor.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    private static final class SharedView extends AbstractExecutorService {
+        private final RPCExecutor executor;
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean shutdown = false;
+
+        SharedView(RPCExecutor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            if (shutdown) {
+                throw new RejectedExecutionException("RPC executor is shut down");
+            }
+            pending.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        done();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                done();
+                throw e;
+            }
+        }
+
+        private void done() {
+            if (pending.decrementAndGet() == 0 && shutdown) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            return Collections.emptyList();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && pending.get() == 0;
+        }
+
+        @Override
+        public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+    }
+
+    private static final class RPCThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "verve-rpc-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
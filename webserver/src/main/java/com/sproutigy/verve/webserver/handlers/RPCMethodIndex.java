@@ -0,0 +1,88 @@
+package com.sproutigy.verve.webserver.handlers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.*;
+
+/**
+ * Immutable index of RPC methods by name and arity, built once when handler is constructed.
+ * Resolution is single hash probe by name and array access by number of params.
+ * Overloads of the same arity are told apart by names of named params, then by JSON types of params.
+ */
+public final class RPCMethodIndex {
+    private static final RPCMethodInvoker[] NONE = new RPCMethodInvoker[0];
+
+    private final Map<String, RPCMethodInvoker[][]> methods;
+
+    public RPCMethodIndex(Collection<RPCMethodInvoker> invokers) {
+        Map<String, List<RPCMethodInvoker>> byName = new HashMap<>();
+        for (RPCMethodInvoker invoker : invokers) {
+            byName.computeIfAbsent(invoker.getMethod().getName(), name -> new ArrayList<>()).add(invoker);
+        }
+
+        Map<String, RPCMethodInvoker[][]> methods = new HashMap<>(byName.size() * 2);
+        for (Map.Entry<String, List<RPCMethodInvoker>> entry : byName.entrySet()) {
+            List<RPCMethodInvoker> overloads = entry.getValue();
+            //getMethods() order is unspecified, sort overloads to resolve ambiguous calls always the same way
+            overloads.sort(Comparator.comparing(invoker -> invoker.getMethod().toGenericString()));
+
+            int maxArity = 0;
+            for (RPCMethodInvoker invoker : overloads) {
+                maxArity = Math.max(maxArity, invoker.getParameterCount());
+            }
+            RPCMethodInvoker[][] byArity = new RPCMethodInvoker[maxArity + 1][];
+            for (RPCMethodInvoker invoker : overloads) {
+                RPCMethodInvoker[] candidates = byArity[invoker.getParameterCount()];
+                candidates = candidates == null ? new RPCMethodInvoker[1] : Arrays.copyOf(candidates, candidates.length + 1);
+                candidates[candidates.length - 1] = invoker;
+                byArity[invoker.getParameterCount()] = candidates;
+            }
+            methods.put(entry.getKey(), byArity);
+        }
+        this.methods = methods;
+    }
+
+    /**
+     * @param params array of positional or object of named params, may be null when there are no params
+     * @return invoker of matching method or null when there is none
+     */
+    public RPCMethodInvoker resolve(String name, JsonNode params) {
+        if (name == null) {
+            return null;
+        }
+        RPCMethodInvoker[][] byArity = methods.get(name);
+        if (byArity == null) {
+            return null;
+        }
+        int arity = params == null ? 0 : params.size();
+        RPCMethodInvoker[] candidates = arity < byArity.length ? byArity[arity] : NONE;
+        if (candidates == null || candidates.length == 0) {
+            return null;
+        }
+        if (candidates.length == 1) {
+            return candidates[0];
+        }
+
+        if (params.isObject()) {
+            for (RPCMethodInvoker candidate : candidates) {
+                if (candidate.matchesNames(params)) {
+                    return candidate;
+                }
+            }
+        }
+        for (RPCMethodInvoker candidate : candidates) {
+            if (candidate.matchesTypes(params)) {
+                return candidate;
+            }
+        }
+        return candidates[0];
+    }
+
+    public boolean contains(String name) {
+        return methods.containsKey(name);
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(methods.keySet());
+    }
+}
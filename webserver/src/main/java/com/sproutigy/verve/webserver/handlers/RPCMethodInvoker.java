@@ -0,0 +1,205 @@
+package com.sproutigy.verve.webserver.handlers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.sproutigy.verve.webserver.serialization.SerializationService;
+import lombok.Getter;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Precompiled invoker of RPC method, created once when handler is constructed.
+ * Method is called through {@link MethodHandle} bound to service instance,
+ * parameter names, types and readers are resolved once, so dispatching does not use reflection.
+ */
+public class RPCMethodInvoker {
+
+    @Getter
+    private final Method method;
+
+    @Getter
+    private final String[] parameterNames;
+
+    private final Type[] parameterTypes;
+    private final MethodHandle handle;
+
+    private volatile Readers readers;
+
+    public RPCMethodInvoker(Object instance, Method method) throws IllegalAccessException {
+        this.method = method;
+
+        Parameter[] parameters = method.getParameters();
+        this.parameterNames = new String[parameters.length];
+        this.parameterTypes = new Type[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+            parameterNames[i] = parameters[i].getName();
+            parameterTypes[i] = parameters[i].getParameterizedType();
+        }
+
+        method.setAccessible(true);
+        MethodHandle handle = MethodHandles.lookup().unreflect(method);
+        if (!Modifier.isStatic(method.getModifiers())) {
+            handle = handle.bindTo(instance);
+        }
+        this.handle = handle
+                .asSpreader(Object[].class, parameters.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+    }
+
+    public int getParameterCount() {
+        return parameterNames.length;
+    }
+
+    /**
+     * Binds JSON params (array of positional or object of named parameters) to method arguments.
+     */
+    public Object[] bind(JsonNode jsonParams, SerializationService serializationService) throws Exception {
+        int count = parameterNames.length;
+        Object[] args = new Object[count];
+        if (count == 0 || jsonParams == null) {
+            return args;
+        }
+
+        ObjectReader[] readers = getReaders(serializationService);
+        if (jsonParams.isArray()) {
+            for (int i = 0; i < count; i++) {
+                JsonNode jsonParam = jsonParams.get(i);
+                args[i] = jsonParam != null ? readers[i].readValue(jsonParam) : null;
+            }
+        } else {
+            Iterator<JsonNode> elementsIterator = jsonParams.elements();
+            for (int i = 0; i < count; i++) {
+                JsonNode element = elementsIterator.hasNext() ? elementsIterator.next() : null;
+                JsonNode jsonParam = jsonParams.get(parameterNames[i]);
+                if (jsonParam == null) {
+                    jsonParam = element;
+                }
+                args[i] = jsonParam != null ? readers[i].readValue(jsonParam) : null;
+            }
+        }
+        return args;
+    }
+
+    /**
+     * @return true when params object has all parameter names of method
+     */
+    public boolean matchesNames(JsonNode jsonParams) {
+        if (jsonParams == null || !jsonParams.isObject()) {
+            return false;
+        }
+        for (String parameterName : parameterNames) {
+            if (!jsonParams.has(parameterName)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true when JSON types of params (positional or named in method's order) may be bound to parameter types
+     */
+    public boolean matchesTypes(JsonNode jsonParams) {
+        if (jsonParams == null) {
+            return parameterNames.length == 0;
+        }
+        Iterator<JsonNode> elementsIterator = jsonParams.elements();
+        for (int i = 0; i < parameterNames.length && elementsIterator.hasNext(); i++) {
+            JsonNode element = elementsIterator.next();
+            if (jsonParams.isObject() && jsonParams.has(parameterNames[i])) {
+                element = jsonParams.get(parameterNames[i]);
+            }
+            if (!isCompatible(element, rawClass(parameterTypes[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isCompatible(JsonNode node, Class<?> type) {
+        if (node.isNull()) {
+            return !type.isPrimitive();
+        }
+        Class<?> t = MethodType.methodType(type).wrap().returnType();
+        if (t == Object.class || JsonNode.class.isAssignableFrom(t)) {
+            return true;
+        }
+        boolean number = Number.class.isAssignableFrom(t);
+        boolean bool = t == Boolean.class;
+        boolean array = t.isArray() || Collection.class.isAssignableFrom(t);
+        if (node.isNumber()) {
+            return number;
+        }
+        if (node.isBoolean()) {
+            return bool;
+        }
+        if (node.isArray()) {
+            return array;
+        }
+        if (node.isObject()) {
+            return !number && !bool && !array && !t.isEnum() && !CharSequence.class.isAssignableFrom(t);
+        }
+        //text is bound to strings, enums and many other scalar types
+        return !number && !bool && !array && !Map.class.isAssignableFrom(t);
+    }
+
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return rawClass(((ParameterizedType) type).getRawType());
+        }
+        return Object.class;
+    }
+
+    /**
+     * Calls method, exceptions thrown by method are propagated as they are.
+     */
+    public Object invoke(Object[] args) throws Throwable {
+        return (Object) handle.invokeExact(args);
+    }
+
+    private ObjectReader[] getReaders(SerializationService serializationService) {
+        Readers readers = this.readers;
+        if (readers == null || readers.serializationService != serializationService) {
+            readers = new Readers(serializationService, parameterTypes);
+            this.readers = readers;
+        }
+        return readers.readers;
+    }
+
+    //readers are bound to serialization service of the server handler is running on
+    private static final class Readers {
+        final SerializationService serializationService;
+        final ObjectReader[] readers;
+
+        Readers(SerializationService serializationService, Type[] types) {
+            this.serializationService = serializationService;
+            this.readers = new ObjectReader[types.length];
+            ObjectMapper mapper = serializationService.getObjectMapper();
+            for (int i = 0; i < types.length; i++) {
+                if (types[i] instanceof Class) {
+                    readers[i] = serializationService.getReader((Class<?>) types[i]);
+                } else {
+                    readers[i] = mapper.readerFor(mapper.getTypeFactory().constructType(types[i]));
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return method.getDeclaringClass().getName() + "." + method.getName();
+    }
+}
@@ -7,14 +7,24 @@ import com.sproutigy.verve.webserver.exceptions.BadRequestHttpException;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.cookie.Cookie;
 import io.netty.handler.codec.http.cookie.ServerCookieDecoder;
+import com.sproutigy.verve.webserver.vertx.ReadStreamInputStream;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
 
 import javax.annotation.Nullable;
+import java.io.InputStream;
 import java.util.*;
 
 public abstract class AbstractHttpRequest implements HttpRequest {
     private Set<Cookie> cookies;
     private Map<String, String> params;
 
+    //clears cached cookies and params of pooled request
+    protected void reset() {
+        cookies = null;
+        params = null;
+    }
+
     @Override
     public String getHeaderRequired(CharSequence name) throws BadRequestHttpException {
         String value = getHeader(name);
@@ -24,11 +34,30 @@ public abstract class AbstractHttpRequest implements HttpRequest {
         return value;
     }
 
+    @Nullable
+    @Override
+    public HttpMethod getHttpMethod() {
+        String method = getMethod();
+        if (method == null) {
+            return null;
+        }
+        try {
+            return HttpMethod.valueOf(method);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     @Override
     public Promise<Binary> fetchData() {
         return fetchData(0);
     }
 
+    @Override
+    public InputStream getBodyInputStream() {
+        return new ReadStreamInputStream(getBodyStream(), Vertx.currentContext());
+    }
+
     @Override
     public Map<String, String> getQueryParams() {
         if (this.params == null) {
@@ -0,0 +1,273 @@
+package com.sproutigy.verve.webserver.impl;
+
+import com.sproutigy.verve.webserver.*;
+
+import java.util.*;
+
+/**
+ * Immutable snapshot of routes, sorted by order once at compile time,
+ * so request dispatching does not have to copy and sort routes on every request.
+ *
+ * Routes are partitioned by HTTP method and path patterns of {@link DefaultHttpRouteFilter} routes
+ * are indexed in a {@link PathTrie}, so only routes matching request method and path are visited.
+ * Routes with custom filters or regex-only patterns are filtered one by one.
+ */
+public final class CompiledRouteTable implements Iterable<HttpRoute> {
+
+    public static final CompiledRouteTable EMPTY = new CompiledRouteTable(new HttpRoute[0]);
+
+    private final HttpRoute[] routes;
+    private final boolean[] indexed;
+    private final int[] methodMasks;
+    private final int[][] unindexedRoutes; //per HTTP method slot
+    private final PathTrie<PatternEntry> trie = new PathTrie<>();
+
+    private CompiledRouteTable(HttpRoute[] routes) {
+        this.routes = routes;
+        this.indexed = new boolean[routes.length];
+        this.methodMasks = new int[routes.length];
+
+        int[] unindexedMasks = new int[routes.length];
+        for (int i = 0; i < routes.length; i++) {
+            methodMasks[i] = HttpMethodBuckets.mask(routes[i].getFilter());
+            if (isIndexable(routes[i].getFilter())) {
+                int patternIndex = 0;
+                for (PathPattern pathPattern : ((DefaultHttpRouteFilter) routes[i].getFilter()).getPathPatterns()) {
+                    trie.insert(pathPattern, new PatternEntry(i, patternIndex++));
+                }
+                indexed[i] = true;
+            } else {
+                unindexedMasks[i] = methodMasks[i];
+            }
+        }
+        this.unindexedRoutes = HttpMethodBuckets.partition(unindexedMasks);
+    }
+
+    private static boolean isIndexable(HttpRouteFilter filter) {
+        //subclasses may override filtering, so only exact class is trusted
+        if (filter == null || filter.getClass() != DefaultHttpRouteFilter.class) {
+            return false;
+        }
+        if (((DefaultHttpRouteFilter) filter).getHttpMethods() == null) {
+            return false;
+        }
+        Collection<PathPattern> pathPatterns = ((DefaultHttpRouteFilter) filter).getPathPatterns();
+        if (pathPatterns == null || pathPatterns.isEmpty()) {
+            return false;
+        }
+        for (PathPattern pathPattern : pathPatterns) {
+            if (!pathPattern.isSegmentPattern()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static CompiledRouteTable compile(Iterable<HttpRoute> routeProvider) {
+        List<HttpRoute> list = new ArrayList<>();
+        for (HttpRoute route : routeProvider) {
+            list.add(route);
+        }
+        if (list.isEmpty()) {
+            return EMPTY;
+        }
+
+        HttpRoute[] routes = list.toArray(new HttpRoute[list.size()]);
+        //stable sort, routes with the same order keep provider's order
+        Arrays.sort(routes, Comparator.comparingInt(HttpRoute::getOrder));
+        return new CompiledRouteTable(routes);
+    }
+
+    public int size() {
+        return routes.length;
+    }
+
+    public HttpRoute get(int index) {
+        return routes[index];
+    }
+
+    /**
+     * Creates cursor over routes that may handle given request, in order.
+     */
+    public Cursor cursor(HttpRequest request) {
+        Cursor cursor = new Cursor(request);
+        trie.find(request.getContextualPath(), cursor);
+        cursor.sortMatches();
+        return cursor;
+    }
+
+    @Override
+    public Iterator<HttpRoute> iterator() {
+        return new RouteIterator(routes);
+    }
+
+
+    public final class Cursor implements PathTrie.MatchListener<PatternEntry> {
+        private final HttpRequest request;
+        private final int methodBit;
+        private final int[] unindexed;
+
+        private int[] matchedRoutes = new int[4];
+        private int[] matchedPatterns = new int[4];
+        private int[] matchedOffsets = new int[4];
+        private String[][] matchedNames = new String[4][];
+        private int matchedCount = 0;
+
+        //captured parameters of all matches, [start, end] pairs
+        private int[] offsets = new int[16];
+        private int offsetsCount = 0;
+        private String path;
+
+        private int matchedPosition = 0;
+        private int unindexedPosition = 0;
+        private int current = -1;
+
+        private Cursor(HttpRequest request) {
+            this.request = request;
+            int slot = HttpMethodBuckets.slot(request.getHttpMethod());
+            this.methodBit = 1 << slot;
+            this.unindexed = unindexedRoutes[slot];
+        }
+
+        /**
+         * Moves to next candidate route.
+         *
+         * @return false when there are no more routes
+         */
+        public boolean next() {
+            int nextMatched = matchedPosition < matchedCount ? matchedRoutes[matchedPosition] : Integer.MAX_VALUE;
+            int nextUnindexed = unindexedPosition < unindexed.length ? unindexed[unindexedPosition] : Integer.MAX_VALUE;
+            if (nextMatched == Integer.MAX_VALUE && nextUnindexed == Integer.MAX_VALUE) {
+                current = -1;
+                return false;
+            }
+            if (nextMatched < nextUnindexed) {
+                current = nextMatched;
+                matchedPosition++;
+            } else {
+                current = nextUnindexed;
+                unindexedPosition++;
+            }
+            return true;
+        }
+
+        public HttpRoute getRoute() {
+            return routes[current];
+        }
+
+        /**
+         * Filters current route against request.
+         *
+         * @return Map of parameters (could be empty) when request matches route or null when not matches.
+         */
+        public Map<String, String> filter() {
+            HttpRoute route = routes[current];
+            if (indexed[current]) {
+                int match = matchedPosition - 1;
+                String[] names = matchedNames[match];
+                if (names.length == 0) {
+                    return Collections.emptyMap();
+                }
+                return new PathParams(path, offsets, matchedOffsets[match], names);
+            }
+            return route.getFilter().filter(request);
+        }
+
+        @Override
+        public void onMatch(PatternEntry entry, String path, int[] captures, String[] names) {
+            if ((methodMasks[entry.routeIndex] & methodBit) == 0) {
+                return;
+            }
+            this.path = path;
+
+            int match = -1;
+            for (int i = 0; i < matchedCount; i++) {
+                if (matchedRoutes[i] == entry.routeIndex) {
+                    //first matching pattern of a route wins
+                    if (entry.patternIndex > matchedPatterns[i]) {
+                        return;
+                    }
+                    match = i;
+                    break;
+                }
+            }
+
+            if (match == -1) {
+                if (matchedCount == matchedRoutes.length) {
+                    matchedRoutes = Arrays.copyOf(matchedRoutes, matchedCount * 2);
+                    matchedPatterns = Arrays.copyOf(matchedPatterns, matchedCount * 2);
+                    matchedOffsets = Arrays.copyOf(matchedOffsets, matchedCount * 2);
+                    matchedNames = Arrays.copyOf(matchedNames, matchedCount * 2);
+                }
+                match = matchedCount++;
+            }
+
+            int length = names.length * 2;
+            if (offsetsCount + length > offsets.length) {
+                //views created before keep referencing previous array, which still holds their offsets
+                offsets = Arrays.copyOf(offsets, Math.max(offsets.length * 2, offsetsCount + length));
+            }
+            System.arraycopy(captures, 0, offsets, offsetsCount, length);
+
+            matchedRoutes[match] = entry.routeIndex;
+            matchedPatterns[match] = entry.patternIndex;
+            matchedOffsets[match] = offsetsCount;
+            matchedNames[match] = names;
+            offsetsCount += length;
+        }
+
+        private void sortMatches() {
+            //insertion sort, number of matches is usually very small
+            for (int i = 1; i < matchedCount; i++) {
+                int route = matchedRoutes[i];
+                int pattern = matchedPatterns[i];
+                int offset = matchedOffsets[i];
+                String[] names = matchedNames[i];
+                int j = i - 1;
+                while (j >= 0 && matchedRoutes[j] > route) {
+                    matchedRoutes[j + 1] = matchedRoutes[j];
+                    matchedPatterns[j + 1] = matchedPatterns[j];
+                    matchedOffsets[j + 1] = matchedOffsets[j];
+                    matchedNames[j + 1] = matchedNames[j];
+                    j--;
+                }
+                matchedRoutes[j + 1] = route;
+                matchedPatterns[j + 1] = pattern;
+                matchedOffsets[j + 1] = offset;
+                matchedNames[j + 1] = names;
+            }
+        }
+    }
+
+    static final class PatternEntry {
+        final int routeIndex;
+        final int patternIndex;
+
+        PatternEntry(int routeIndex, int patternIndex) {
+            this.routeIndex = routeIndex;
+            this.patternIndex = patternIndex;
+        }
+    }
+
+    private static final class RouteIterator implements Iterator<HttpRoute> {
+        private final HttpRoute[] routes;
+        private int position = 0;
+
+        RouteIterator(HttpRoute[] routes) {
+            this.routes = routes;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position < routes.length;
+        }
+
+        @Override
+        public HttpRoute next() {
+            if (position >= routes.length) {
+                throw new NoSuchElementException();
+            }
+            return routes[position++];
+        }
+    }
+}
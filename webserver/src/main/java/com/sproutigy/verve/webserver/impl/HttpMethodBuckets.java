@@ -0,0 +1,63 @@
+package com.sproutigy.verve.webserver.impl;
+
+import com.sproutigy.verve.webserver.DefaultHttpRouteFilter;
+import com.sproutigy.verve.webserver.HttpRouteFilter;
+import io.vertx.core.http.HttpMethod;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Partitions routes by HTTP method, so routes restricted to other methods are never filtered.
+ * Every method has its own slot, additional slot is used for requests with methods unknown to {@link HttpMethod}.
+ */
+final class HttpMethodBuckets {
+    private HttpMethodBuckets() { }
+
+    private static final int SLOTS = HttpMethod.values().length + 1;
+
+    static final int ANY_METHOD_MASK = (1 << SLOTS) - 1;
+
+    static int slots() {
+        return SLOTS;
+    }
+
+    static int slot(HttpMethod method) {
+        return method != null ? method.ordinal() : SLOTS - 1;
+    }
+
+    /**
+     * @return bit mask of slots accepted by filter
+     */
+    static int mask(HttpRouteFilter filter) {
+        if (filter instanceof DefaultHttpRouteFilter) {
+            Set<HttpMethod> methods = ((DefaultHttpRouteFilter) filter).getHttpMethods();
+            if (methods != null && !methods.isEmpty()) {
+                int mask = 0;
+                for (HttpMethod method : methods) {
+                    mask |= 1 << slot(method);
+                }
+                return mask;
+            }
+        }
+        return ANY_METHOD_MASK;
+    }
+
+    /**
+     * @return for every slot, ascending indices of routes accepting it
+     */
+    static int[][] partition(int[] masks) {
+        int[][] buckets = new int[SLOTS][];
+        for (int slot = 0; slot < SLOTS; slot++) {
+            int[] bucket = new int[masks.length];
+            int count = 0;
+            for (int i = 0; i < masks.length; i++) {
+                if ((masks[i] & (1 << slot)) != 0) {
+                    bucket[count++] = i;
+                }
+            }
+            buckets[slot] = Arrays.copyOf(bucket, count);
+        }
+        return buckets;
+    }
+}
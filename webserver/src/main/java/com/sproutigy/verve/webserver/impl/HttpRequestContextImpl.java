@@ -1,6 +1,7 @@
 package com.sproutigy.verve.webserver.impl;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.sproutigy.commons.async.Deferred;
 import com.sproutigy.commons.async.FutureWatch;
 import com.sproutigy.commons.async.Promise;
@@ -11,29 +12,47 @@ import com.sproutigy.verve.webserver.*;
 import com.sproutigy.verve.webserver.actions.FinishWebAction;
 import com.sproutigy.verve.webserver.actions.WebAction;
 import com.sproutigy.verve.webserver.exceptions.HttpException;
+import com.sproutigy.verve.webserver.serialization.Codec;
+import com.sproutigy.verve.webserver.serialization.SerializationService;
+import com.sproutigy.verve.webserver.vertx.VertxHttpRequest;
+import com.sproutigy.verve.webserver.vertx.VertxUtil;
+import com.sproutigy.verve.webserver.vertx.WorkerPools;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
-import java.util.Iterator;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @RequiredArgsConstructor
 public class HttpRequestContextImpl implements Runnable, HttpRequestContext {
-    private static final ObjectMapper mapper = new ObjectMapper();
+    private static final int SERIALIZATION_BUFFER_SIZE = 1024;
 
     @Getter
     @NonNull
@@ -53,60 +72,187 @@ public class HttpRequestContextImpl implements Runnable, HttpRequestContext {
 
     @Getter
     @NonNull
-    private Iterator<HttpRoute> routesWithHandlersIterator;
+    private CompiledRouteTable.Cursor routeCursor;
 
     private HttpRoute currentRoute = null;
     private Map<String, String> routeParams = null;
 
-    private CopyOnWriteArrayList<Runnable> onFinishedCallbacks = new CopyOnWriteArrayList<>();
-
-    @Getter
-    @NonNull
-    private Context attributes = new ContextImpl();
-
-    private volatile boolean finished;
-
+    //allocated on first use, most requests have neither callbacks nor attributes
+    private volatile CopyOnWriteArrayList<Runnable> onFinishedCallbacks;
+    private volatile Context attributes;
+    private volatile RequestAttributes requestAttributes;
+
+    //set when context is recycled by pool after route chain is finished
+    private RequestContextPool pool;
+
+    private Codec responseCodec = null;
+
+    //body parsed incrementally is streamed, not cached, so parsed value is kept for repeated fetchDataAs calls
+    private Promise<?> incrementalData = null;
+    private Class<?> incrementalDataType = null;
+
+    /*
+     * Route chain state machine:
+     * PENDING -> RUNNING (dispatching routes) -> AWAITING (handler continues asynchronously) -> RUNNING -> ... -> FINISHED.
+     * Continuation requested while RUNNING (synchronous result or async result racing with dispatching thread)
+     * only marks PROCEED_REQUESTED and the dispatching loop moves to next route,
+     * so no thread blocks on a monitor and stack depth does not grow with length of the chain.
+     */
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int PROCEED_REQUESTED = 2;
+    private static final int AWAITING = 3;
+    private static final int FINISHED = 4;
+
+    private final AtomicInteger state = new AtomicInteger(PENDING);
+
+
+    /**
+     * Starts route chain or continues it with next route after current handler is done.
+     */
+    public void run() {
+        while (true) {
+            int current = state.get();
+            if (current == FINISHED || current == PROCEED_REQUESTED) {
+                return;
+            }
+            if (current == RUNNING) {
+                if (state.compareAndSet(RUNNING, PROCEED_REQUESTED)) {
+                    return;
+                }
+            } else if (state.compareAndSet(current, RUNNING)) {
+                dispatch();
+                return;
+            }
+        }
+    }
 
-    public synchronized void run() {
-        HttpRequestContext.set(this);
-        try {
+    private void dispatch() {
+        try (HttpRequestScope ignore = HttpRequestScope.enter(this)) {
             while (true) {
-                if (routesWithHandlersIterator.hasNext()) {
-                    currentRoute = routesWithHandlersIterator.next();
-                    routeParams = getRoute().getFilter().filter(getRequest());
-                    if (routeParams != null) {
-                        try {
-                            Object ret = getHandler().handle(this);
-                            handleReturnedObject(ret);
-                        } catch (Throwable throwable) {
-                            thrown(throwable);
-                        }
-                        return;
-                    }
-                } else {
-                    if (!finished) {
-                        finished = true;
-                        for (Runnable runnable : onFinishedCallbacks) {
-                            try {
-                                runnable.run();
-                            } catch (Throwable e) {
-                                log.warn("On request context {} finished listener {} thrown exception", this, runnable, e);
-                            }
-                        }
-                    }
-                    if (!getResponse().isFinalized()) {
-                        getResponse().status(HttpResponseStatus.NOT_FOUND).end();
+                if (!routeCursor.next()) {
+                    finish();
+                    return;
+                }
+                currentRoute = routeCursor.getRoute();
+                routeParams = routeCursor.filter();
+                if (routeParams == null) {
+                    continue;
+                }
+
+                if (!offloadHandler()) {
+                    try {
+                        Object ret = getHandler().handle(this);
+                        handleReturnedObject(ret);
+                    } catch (Throwable throwable) {
+                        thrown(throwable);
                     }
+                }
+
+                if (state.compareAndSet(PROCEED_REQUESTED, RUNNING)) {
+                    continue;
+                }
+                if (state.compareAndSet(RUNNING, AWAITING)) {
                     return;
                 }
+                //continuation requested concurrently in the meantime
+                state.set(RUNNING);
             }
-        } finally {
-            HttpRequestContext.remove();
         }
     }
 
+    private void finish() {
+        state.set(FINISHED);
+        if (onFinishedCallbacks != null) {
+            for (Runnable runnable : onFinishedCallbacks) {
+                try {
+                    runnable.run();
+                } catch (Throwable e) {
+                    log.warn("On request context {} finished listener {} thrown exception", this, runnable, e);
+                }
+            }
+        }
+        if (!getResponse().isFinalized()) {
+            getResponse().status(HttpResponseStatus.NOT_FOUND).end();
+        }
+        if (getRequest() instanceof VertxHttpRequest) {
+            //body not consumed by blocking handler must not keep connection paused
+            ((VertxHttpRequest) getRequest()).resumeAfterDispatch();
+        }
+        if (pool != null) {
+            pool.release(this);
+        }
+    }
+
+    void recycleBy(RequestContextPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Prepares pooled context for next request.
+     */
+    void reset(String contextPath, HttpRequest request, HttpResponse response, CompiledRouteTable.Cursor routeCursor) {
+        this.contextPath = contextPath;
+        this.request = request;
+        this.response = response;
+        this.routeCursor = routeCursor;
+        this.currentRoute = null;
+        this.routeParams = null;
+        this.onFinishedCallbacks = null;
+        this.attributes = null;
+        if (requestAttributes != null) {
+            requestAttributes.clear();
+        }
+        this.responseCodec = null;
+        this.incrementalData = null;
+        this.incrementalDataType = null;
+        state.set(PENDING);
+    }
+
+    /**
+     * Runs handler of blocking route on worker thread.
+     * Routes without named worker pool are run inline when already on worker thread.
+     *
+     * @return false when handler should be run on current thread
+     */
+    private boolean offloadHandler() {
+        if (!currentRoute.isBlocking()) {
+            return false;
+        }
+
+        String workerPool = currentRoute.getWorkerPool();
+        boolean namedPool = workerPool != null && !workerPool.isEmpty();
+        if (!namedPool && io.vertx.core.Context.isOnWorkerThread()) {
+            return false;
+        }
+
+        HttpHandler handler = getHandler();
+        if (getRequest() instanceof VertxHttpRequest) {
+            //body arriving before worker registers its consumer would be dropped otherwise
+            ((VertxHttpRequest) getRequest()).pauseForDispatch();
+        }
+        getWorkerPools().get(workerPool).<Object>executeBlocking(HttpRequestScope.wrapHandler(this, future -> {
+            try {
+                future.complete(handler.handle(this));
+            } catch (Throwable e) {
+                future.fail(e);
+            }
+        }), false, result -> {
+            if (result.succeeded()) {
+                handleReturnedObject(result.result());
+            } else {
+                thrown(result.cause());
+            }
+        });
+        return true;
+    }
+
     @Override
     public void thrown(Throwable throwable) {
+        if (throwable instanceof RejectedExecutionException) {
+            log.warn("Request {} rejected: {}", request, throwable.getMessage());
+            throwable = new HttpException(HttpResponseStatus.SERVICE_UNAVAILABLE, throwable);
+        }
         if (throwable instanceof HttpException) {
             HttpException httpException = ((HttpException) throwable);
             String trace = throwable.getStackTrace()[0].toString();
@@ -137,7 +283,22 @@ public class HttpRequestContextImpl implements Runnable, HttpRequestContext {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <T> Promise<T> fetchDataAs(Class<T> clazz, long limit) {
+        if (incrementalData != null) {
+            if (incrementalDataType == clazz) {
+                return (Promise<T>) incrementalData;
+            }
+            Deferred<T> deferred = Promise.defer();
+            deferred.reject(new IllegalStateException("Request body already consumed as " + incrementalDataType.getName()));
+            return deferred.getPromise();
+        }
+
+        if (server.isIncrementalJsonParsing() && getRequestCodec() == getSerializationService().getJsonCodec()
+                && getRequest() instanceof VertxHttpRequest && !((VertxHttpRequest) getRequest()).isBodyConsumed()) {
+            return fetchJsonIncrementally((VertxHttpRequest) getRequest(), clazz, limit);
+        }
+
         Deferred<T> deferred = Promise.defer();
         FutureWatch.listen(getRequest().fetchData(limit), (result, value, cause) -> {
             if (result.isSuccess()) {
@@ -154,13 +315,74 @@ public class HttpRequestContextImpl implements Runnable, HttpRequestContext {
         return deferred.getPromise();
     }
 
+    /**
+     * @return codec of request body by Content-Type, JSON codec when not set or not supported
+     */
+    private Codec getRequestCodec() {
+        Codec codec = getSerializationService().getCodec(getRequest().getHeader(HttpHeaderNames.CONTENT_TYPE));
+        return codec != null ? codec : getSerializationService().getJsonCodec();
+    }
+
+    /**
+     * @return codec of response body negotiated by Accept header
+     */
+    private Codec getResponseCodec() {
+        if (responseCodec == null) {
+            responseCodec = getSerializationService().negotiate(getRequest().getHeader(HttpHeaderNames.ACCEPT));
+        }
+        return responseCodec;
+    }
+
+    /**
+     * Parses JSON while body chunks arrive, chunks are passed to parser as they are, without collecting the body.
+     * Body is consumed as stream, so it is not available to fetchData afterwards,
+     * repeated fetchDataAs calls of the same type get the same parsed value.
+     */
+    private <T> Promise<T> fetchJsonIncrementally(VertxHttpRequest request, Class<T> clazz, long limit) {
+        Deferred<T> deferred = Promise.defer();
+        incrementalData = deferred.getPromise();
+        incrementalDataType = clazz;
+
+        IncrementalJsonReader<T> reader;
+        try {
+            reader = new IncrementalJsonReader<>(getSerializationService().getReader(clazz));
+        } catch (IOException e) {
+            deferred.reject(e);
+            return deferred.getPromise();
+        }
+
+        Promise<Void> data = request.streamData(limit, buffer -> {
+            if (deferred.getPromise().isDone()) {
+                return;
+            }
+            try {
+                reader.feed(buffer);
+            } catch (Exception e) {
+                deferred.reject(new HttpException(HttpResponseStatus.BAD_REQUEST, e));
+            }
+        });
+        FutureWatch.listen(data, (result, value, cause) -> {
+            if (deferred.getPromise().isDone()) {
+                return;
+            }
+            if (!result.isSuccess()) {
+                deferred.reject(cause);
+                return;
+            }
+            try {
+                deferred.resolve(reader.finish());
+            } catch (Exception e) {
+                deferred.reject(new HttpException(HttpResponseStatus.BAD_REQUEST, e));
+            }
+        });
+        return deferred.getPromise();
+    }
+
     @SuppressWarnings("unchecked")
     private void handleReturnedObject(Object ret) {
         if (ret == HANDLED) return;
 
-        HttpRequestContext.set(this);
-
-        try {
+        try (HttpRequestScope ignore = HttpRequestScope.enter(this)) {
             if (ret != null && ret != PROCEED) {
                 if (ret == FINISH || ret instanceof FinishWebAction) {
                     try {
@@ -183,25 +405,46 @@ public class HttpRequestContextImpl implements Runnable, HttpRequestContext {
                         return;
                     }
 
-                    if (ret instanceof Future) {
-                        FutureWatch.listen((Future<?>) ret, (result, value, cause) -> {
-                            getVertx().runOnContext(aVoid -> {
-                                if (result.isSuccess()) {
-                                    handleReturnedObject(value);
-                                } else {
-                                    thrown(cause);
-                                }
-                            });
+                    if (ret instanceof CompletionStage) {
+                        io.vertx.core.Context context = currentContext();
+                        ((CompletionStage<?>) ret).whenComplete((value, cause) -> continueWith(context, value, cause));
+                        return;
+                    }
+
+                    if (ret instanceof io.vertx.core.Future) {
+                        io.vertx.core.Context context = currentContext();
+                        ((io.vertx.core.Future<?>) ret).setHandler(result -> {
+                            if (result.succeeded()) {
+                                continueWith(context, result.result(), null);
+                            } else {
+                                continueWith(context, null, result.cause() != null ? result.cause() : new IllegalStateException("Future failed without cause"));
+                            }
                         });
                         return;
                     }
 
+                    if (ret instanceof Future) {
+                        io.vertx.core.Context context = currentContext();
+                        FutureWatch.listen((Future<?>) ret, (result, value, cause) -> continueWith(context, value,
+                                result.isSuccess() ? null : cause != null ? cause : new CancellationException()));
+                        return;
+                    }
+
                     if (ret instanceof Callable) {
-                        handleReturnedObject(blocking((Callable) ret));
+                        if (currentRoute != null && currentRoute.isNonBlocking()) {
+                            handleReturnedObject(((Callable) ret).call());
+                        } else {
+                            handleReturnedObject(blocking((Callable) ret));
+                        }
                         return;
                     }
 
                     if (ret instanceof Runnable) {
+                        if (currentRoute != null && currentRoute.isNonBlocking()) {
+                            ((Runnable) ret).run();
+                            handleReturnedObject(null);
+                            return;
+                        }
                         handleReturnedObject(blocking((Callable<Void>) () -> {
                             ((Runnable) ret).run();
                             return null;
@@ -209,6 +452,19 @@ public class HttpRequestContextImpl implements Runnable, HttpRequestContext {
                         return;
                     }
 
+                    if (ret instanceof Collection && server.getJsonStreamingThreshold() > 0
+                            && getResponseCodec() == getSerializationService().getJsonCodec()
+                            && ((Collection) ret).size() >= server.getJsonStreamingThreshold()) {
+                        new ResponseStreamer(this, () -> handleReturnedObject(null))
+                                .streamJsonArray(((Collection) ret).iterator(), server.getJsonStreamingFlushSize());
+                        return;
+                    }
+
+                    if (ResponseStreamer.isStreamable(ret)) {
+                        new ResponseStreamer(this, () -> handleReturnedObject(null)).stream(ret);
+                        return;
+                    }
+
                     sendObject(ret);
                 }
             }
@@ -217,36 +473,55 @@ public class HttpRequestContextImpl implements Runnable, HttpRequestContext {
 
         } catch (Throwable throwable) {
             thrown(throwable);
-        } finally {
-            HttpRequestContext.remove();
         }
     }
 
+    private io.vertx.core.Context currentContext() {
+        io.vertx.core.Context context = Vertx.currentContext();
+        return context != null ? context : getVertx().getOrCreateContext();
+    }
+
+    /**
+     * Continues with async result on dispatching context, directly when already completed on it.
+     */
+    private void continueWith(io.vertx.core.Context context, Object value, Throwable cause) {
+        VertxUtil.runOnContext(context, HttpRequestScope.wrapHandler(this, aVoid -> {
+            if (cause == null) {
+                handleReturnedObject(value);
+            } else {
+                thrown(cause instanceof CompletionException && cause.getCause() != null ? cause.getCause() : cause);
+            }
+        }));
+    }
+
     @Override
     public void sendObject(Object o) {
-        Binary data;
+        Buffer data;
         if (o == null) {
-            data = Binary.EMPTY;
+            data = Buffer.buffer(0);
         } else if (isPrimitive(o)) {
             getResponse().setHeaderIfNotSet(HttpHeaderNames.CONTENT_TYPE, "text/plain; charset=UTF-8");
-            data = Binary.fromString(o.toString(), StandardCharsets.UTF_8);
+            data = Buffer.buffer(o.toString(), StandardCharsets.UTF_8.name());
         } else if (o instanceof byte[]) {
-            data = Binary.from((byte[]) o);
+            data = VertxUtil.wrap((byte[]) o);
         } else if (o instanceof Binary) {
-            data = (Binary) o;
+            data = VertxUtil.wrap((Binary) o);
+        } else if (o instanceof Buffer) {
+            data = (Buffer) o;
         } else {
+            Codec codec = getResponseCodec();
             try {
-                data = serialize(o);
+                data = serializeToBuffer(codec, o);
             } catch (Exception e) {
                 log.warn("Could not serialize object {}", o, e);
                 getResponse().status(HttpResponseStatus.INTERNAL_SERVER_ERROR).end();
                 return;
             }
-            getResponse().setHeaderIfNotSet(HttpHeaderNames.CONTENT_TYPE, "application/json; charset=UTF-8");
+            getResponse().setHeaderIfNotSet(HttpHeaderNames.CONTENT_TYPE, codec.getContentType());
         }
 
         getResponse().setHeaderIfNotSet(HttpHeaderNames.CONTENT_TYPE, "application/octet-stream");
-        getResponse().setHeaderIfNotSet(HttpHeaderNames.CONTENT_LENGTH, Long.toString(data.length()));
+        getResponse().setHeaderIfNotSet(HttpHeaderNames.CONTENT_LENGTH, Integer.toString(data.length()));
         if (!Objects.equals(getRequest().getMethod(), HttpMethod.HEAD.name())) {
             getResponse().end(data);
         } else {
@@ -281,22 +556,82 @@ public class HttpRequestContextImpl implements Runnable, HttpRequestContext {
 
     @Override
     public void onFinished(Runnable runnable) {
-        onFinishedCallbacks.add(runnable);
+        CopyOnWriteArrayList<Runnable> callbacks = onFinishedCallbacks;
+        if (callbacks == null) {
+            synchronized (this) {
+                callbacks = onFinishedCallbacks;
+                if (callbacks == null) {
+                    callbacks = new CopyOnWriteArrayList<>();
+                    onFinishedCallbacks = callbacks;
+                }
+            }
+        }
+        callbacks.add(runnable);
+    }
+
+    @Override
+    public Context getAttributes() {
+        Context attributes = this.attributes;
+        if (attributes == null) {
+            synchronized (this) {
+                attributes = this.attributes;
+                if (attributes == null) {
+                    attributes = new AttributesContext();
+                    this.attributes = attributes;
+                }
+            }
+        }
+        return attributes;
+    }
+
+    /**
+     * General purpose attributes, values of typed request attributes can be read by their key names,
+     * so code using legacy string names (e.g. "auth") still sees them.
+     */
+    private final class AttributesContext extends ContextImpl {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> Collection<T> getAll(String type) {
+            Collection<T> values = super.getAll(type);
+            if (values.isEmpty()) {
+                RequestAttributes requestAttributes = HttpRequestContextImpl.this.requestAttributes;
+                AttributeKey<?> key = requestAttributes != null ? AttributeKey.find(type) : null;
+                Object value = key != null ? requestAttributes.get(key) : null;
+                if (value != null) {
+                    return Collections.singletonList((T) value);
+                }
+            }
+            return values;
+        }
+    }
+
+    @Override
+    public RequestAttributes getRequestAttributes() {
+        RequestAttributes requestAttributes = this.requestAttributes;
+        if (requestAttributes == null) {
+            synchronized (this) {
+                requestAttributes = this.requestAttributes;
+                if (requestAttributes == null) {
+                    requestAttributes = new RequestAttributes();
+                    this.requestAttributes = requestAttributes;
+                }
+            }
+        }
+        return requestAttributes;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
-    public <V> Promise<V> blocking(Callable<V> callable) {
+    public <V> Promise<V> blocking(String workerPool, boolean ordered, Callable<V> callable) {
         Deferred<V> deferred = Promise.defer();
-        getVertx().executeBlocking(future -> {
+        getWorkerPools().get(workerPool).<V>executeBlocking(HttpRequestScope.wrapHandler(this, future -> {
             try {
                 future.complete(callable.call());
             } catch (Throwable e) {
                 future.fail(e);
             }
-        }, ret -> {
+        }), ordered, ret -> {
             if (ret.succeeded()) {
-                deferred.resolve((V) ret.result());
+                deferred.resolve(ret.result());
             } else {
                 deferred.reject(ret.cause());
             }
@@ -304,14 +639,94 @@ public class HttpRequestContextImpl implements Runnable, HttpRequestContext {
         return deferred.getPromise();
     }
 
+    private SerializationService getSerializationService() {
+        return server.getSerializationService();
+    }
+
+    //declared output type of current route is used when value is compatible with it
+    private Class<?> getOutputType(Object o) {
+        Class<?> outputType = currentRoute != null ? currentRoute.getOutputType() : null;
+        if (outputType != null && outputType != void.class && outputType.isInstance(o)) {
+            return outputType;
+        }
+        return o.getClass();
+    }
+
+    /**
+     * @return element type of streamed JSON array taken from declared output type of current route
+     * (component type of array or the type itself when it is not a collection), null when not declared
+     */
+    Class<?> getStreamElementType() {
+        Class<?> outputType = currentRoute != null ? currentRoute.getOutputType() : null;
+        if (outputType == null || outputType == void.class || outputType == Object.class) {
+            return null;
+        }
+        if (outputType.isArray()) {
+            return outputType.getComponentType();
+        }
+        if (Iterable.class.isAssignableFrom(outputType) || Map.class.isAssignableFrom(outputType)) {
+            return null;
+        }
+        return outputType;
+    }
+
+    ObjectWriter getJsonWriter(Class<?> type) {
+        return getSerializationService().getJsonCodec().getWriter(type);
+    }
+
+    private WorkerPools getWorkerPools() {
+        return server.getVertxHttpServer().getWorkerPools();
+    }
+
     protected Binary serialize(Object o) throws Exception {
-        return Binary.from(mapper.writeValueAsBytes(o));
+        ByteBuf byteBuf = serializeToByteBuf(getSerializationService().getJsonCodec(), o);
+        try {
+            byte[] bytes = new byte[byteBuf.readableBytes()];
+            byteBuf.readBytes(bytes);
+            return Binary.from(bytes);
+        } finally {
+            byteBuf.release();
+        }
+    }
+
+    protected Buffer serializeToBuffer(Object o) throws Exception {
+        return serializeToBuffer(getSerializationService().getJsonCodec(), o);
+    }
+
+    /**
+     * Serializes object into buffer which is then passed to the response without further copying.
+     * Output grows inside a pooled buffer, so the payload is copied exactly once into the returned buffer.
+     * Vert.x wraps buffers handed to {@link Buffer#buffer(ByteBuf)} as unreleasable,
+     * so the pooled one itself never leaves this method.
+     */
+    protected Buffer serializeToBuffer(Codec codec, Object o) throws Exception {
+        ByteBuf byteBuf = serializeToByteBuf(codec, o);
+        try {
+            return Buffer.buffer(Unpooled.copiedBuffer(byteBuf));
+        } finally {
+            byteBuf.release();
+        }
+    }
+
+    private ByteBuf serializeToByteBuf(Codec codec, Object o) throws Exception {
+        ByteBuf byteBuf = PooledByteBufAllocator.DEFAULT.heapBuffer(SERIALIZATION_BUFFER_SIZE);
+        try (OutputStream out = new ByteBufOutputStream(byteBuf)) {
+            codec.getWriter(getOutputType(o)).writeValue(out, o);
+            return byteBuf;
+        } catch (Throwable e) {
+            byteBuf.release();
+            throw e;
+        }
+    }
+
+    JsonGenerator createJsonGenerator(OutputStream out) throws IOException {
+        return getSerializationService().getObjectMapper().getFactory().createGenerator(out);
     }
 
     protected <T> T deserialize(Binary binary, Class<T> clazz) throws Exception {
         byte[] data = binary.asByteArray(false);
         if (data.length > 0) {
-            return mapper.readValue(data, clazz);
+            return getRequestCodec().getReader(clazz).readValue(data);
         } else {
             return null;
         }
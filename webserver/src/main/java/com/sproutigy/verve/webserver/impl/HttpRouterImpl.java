@@ -6,41 +6,82 @@ import com.sproutigy.verve.webserver.handlers.RedirectHttpHandler;
 import io.netty.handler.codec.http.HttpMethod;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 
+/**
+ * Copy-on-write router: routes are kept sorted by order (routes with equal order in registration order)
+ * in an immutable snapshot published through volatile field, so iteration from event loop threads
+ * never locks nor sees partially applied changes.
+ */
 public class HttpRouterImpl implements HttpRouter {
-    private final LinkedList<HttpRoute> entries = new LinkedList<>();
+    private static final HttpRoute[] NO_ROUTES = new HttpRoute[0];
+
+    private volatile Snapshot snapshot = new Snapshot(NO_ROUTES);
+
+    private final List<HttpRouterListener> listeners = new CopyOnWriteArrayList<>();
 
     @Override
-    public void add(HttpRoute entry) {
-        int i;
-        for (i = 0; i < entries.size(); i++) {
-            HttpRoute route = entries.get(i);
-            if (entry.getOrder() > route.getOrder()) {
-                break;
-            }
+    public void add(HttpRoute route) {
+        synchronized (this) {
+            HttpRoute[] routes = snapshot.routes;
+            int position = insertionPoint(routes, route.getOrder());
+            HttpRoute[] newRoutes = new HttpRoute[routes.length + 1];
+            System.arraycopy(routes, 0, newRoutes, 0, position);
+            newRoutes[position] = route;
+            System.arraycopy(routes, position, newRoutes, position + 1, routes.length - position);
+            snapshot = new Snapshot(newRoutes);
         }
-        entries.add(i, entry);
+        raiseChanged();
     }
 
     @Override
     public void addAll(Iterable<HttpRoute> routes) {
+        List<HttpRoute> list = new ArrayList<>();
         for (HttpRoute route : routes) {
-            entries.add(route);
+            list.add(route);
         }
+        if (list.isEmpty()) {
+            return;
+        }
+
+        HttpRoute[] added = list.toArray(new HttpRoute[list.size()]);
+        Arrays.sort(added, ORDER_COMPARATOR);
+
+        synchronized (this) {
+            HttpRoute[] current = snapshot.routes;
+            HttpRoute[] merged = new HttpRoute[current.length + added.length];
+            int i = 0, j = 0, k = 0;
+            while (i < current.length && j < added.length) {
+                //existing routes go first when order is equal
+                if (added[j].getOrder() < current[i].getOrder()) {
+                    merged[k++] = added[j++];
+                } else {
+                    merged[k++] = current[i++];
+                }
+            }
+            while (i < current.length) {
+                merged[k++] = current[i++];
+            }
+            while (j < added.length) {
+                merged[k++] = added[j++];
+            }
+            snapshot = new Snapshot(merged);
+        }
+        raiseChanged();
     }
 
     @Override
     public List<HttpRoute> add(HttpHandler handler) {
         List<HttpRoute> routes = HttpRoute.from(handler);
-        entries.addAll(routes);
+        addAll(routes);
         return routes;
     }
 
     @Override
     public List<HttpRoute> add(HttpObjectHandler handler) {
         List<HttpRoute> routes = HttpRoute.from(handler);
-        entries.addAll(routes);
+        addAll(routes);
         return routes;
     }
 
@@ -107,11 +148,75 @@ public class HttpRouterImpl implements HttpRouter {
 
     @Override
     public void remove(HttpRoute route) {
-        entries.remove(route);
+        synchronized (this) {
+            HttpRoute[] routes = snapshot.routes;
+            int position = -1;
+            for (int i = 0; i < routes.length; i++) {
+                if (routes[i].equals(route)) {
+                    position = i;
+                    break;
+                }
+            }
+            if (position == -1) {
+                return;
+            }
+            HttpRoute[] newRoutes = new HttpRoute[routes.length - 1];
+            System.arraycopy(routes, 0, newRoutes, 0, position);
+            System.arraycopy(routes, position + 1, newRoutes, position, routes.length - position - 1);
+            snapshot = new Snapshot(newRoutes);
+        }
+        raiseChanged();
+    }
+
+    @Override
+    public void addListener(HttpRouterListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(HttpRouterListener listener) {
+        listeners.remove(listener);
     }
 
     @Override
     public Iterator<HttpRoute> iterator() {
-        return entries.iterator();
+        return snapshot.list.iterator();
+    }
+
+    public int size() {
+        return snapshot.routes.length;
+    }
+
+    private static final Comparator<HttpRoute> ORDER_COMPARATOR = Comparator.comparingInt(HttpRoute::getOrder);
+
+    //binary search of position after last route with order lower or equal to given one
+    private static int insertionPoint(HttpRoute[] routes, int order) {
+        int low = 0;
+        int high = routes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (routes[mid].getOrder() <= order) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static final class Snapshot {
+        final HttpRoute[] routes;
+        final List<HttpRoute> list;
+
+        Snapshot(HttpRoute[] routes) {
+            this.routes = routes;
+            this.list = Collections.unmodifiableList(Arrays.asList(routes));
+        }
+    }
+
+    private void raiseChanged() {
+        for (HttpRouterListener listener : listeners) {
+            listener.onRoutesChanged(this);
+        }
     }
 }
@@ -0,0 +1,95 @@
+package com.sproutigy.verve.webserver.impl;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Parses JSON incrementally as buffers arrive, using Jackson non-blocking parser.
+ * Tokens are collected in a {@link TokenBuffer}, which is bound to target type once input ends,
+ * so parsing overlaps with receiving the body instead of starting after it is complete.
+ * Heap buffers are fed to parser directly; Jackson 2.9 non-blocking parser accepts only byte arrays,
+ * so direct buffers are copied into reused scratch array (parser copies partial tokens itself).
+ */
+class IncrementalJsonReader<T> {
+    private final ObjectReader reader;
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final TokenBuffer tokens;
+
+    private byte[] scratch;
+    private long received = 0;
+    private int depth = 0;
+    private boolean rootCompleted = false;
+
+    IncrementalJsonReader(ObjectReader reader) throws IOException {
+        this.reader = reader;
+        this.parser = reader.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.tokens = new TokenBuffer(parser);
+    }
+
+    void feed(Buffer buffer) throws IOException {
+        int length = buffer.length();
+        received += length;
+        if (length == 0) {
+            return;
+        }
+
+        ByteBuf byteBuf = buffer.getByteBuf();
+        if (byteBuf.hasArray()) {
+            int offset = byteBuf.arrayOffset() + byteBuf.readerIndex();
+            feeder.feedInput(byteBuf.array(), offset, offset + length);
+        } else {
+            //previous input is fully consumed by drain(), so scratch array can be reused
+            if (scratch == null || scratch.length < length) {
+                scratch = new byte[Math.max(length, 8 * 1024)];
+            }
+            byteBuf.getBytes(byteBuf.readerIndex(), scratch, 0, length);
+            feeder.feedInput(scratch, 0, length);
+        }
+        drain();
+    }
+
+    /**
+     * @return deserialized value or null when body was empty
+     */
+    T finish() throws IOException {
+        feeder.endOfInput();
+        drain();
+        parser.close();
+
+        if (!rootCompleted) {
+            if (received == 0) {
+                return null;
+            }
+            throw new EOFException("Unexpected end of JSON input");
+        }
+        try (JsonParser tokensParser = tokens.asParser(reader)) {
+            return reader.readValue(tokensParser);
+        }
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            tokens.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+            if (depth == 0) {
+                rootCompleted = true;
+            }
+        }
+    }
+}
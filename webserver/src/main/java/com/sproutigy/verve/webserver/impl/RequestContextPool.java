@@ -0,0 +1,71 @@
+package com.sproutigy.verve.webserver.impl;
+
+import com.sproutigy.verve.webserver.HttpServer;
+import com.sproutigy.verve.webserver.vertx.VertxHttpRequest;
+import com.sproutigy.verve.webserver.vertx.VertxHttpResponse;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerRequest;
+
+import java.util.ArrayDeque;
+
+/**
+ * Pool of request contexts together with their request and response wrappers,
+ * owned by a single Vert.x event loop context, so it needs no synchronization.
+ * Context finished on another thread (e.g. worker) is returned to the pool it was taken from on its owner context.
+ *
+ * Pooled context must not be used by handlers after route chain is finished,
+ * as it is then reused for another request.
+ */
+public final class RequestContextPool {
+
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private final HttpServer server;
+    private final Context owner;
+    private final int maxSize;
+    private final ArrayDeque<HttpRequestContextImpl> contexts;
+
+    public RequestContextPool(HttpServer server, Context owner, int maxSize) {
+        this.server = server;
+        this.owner = owner;
+        this.maxSize = maxSize;
+        this.contexts = new ArrayDeque<>(Math.min(maxSize, 16));
+    }
+
+    public HttpRequestContextImpl acquire(HttpServerRequest vertxRequest) {
+        HttpRequestContextImpl ctx = contexts.pollLast();
+        if (ctx == null) {
+            VertxHttpRequest request = new VertxHttpRequest(vertxRequest);
+            VertxHttpResponse response = new VertxHttpResponse(vertxRequest);
+            ctx = new HttpRequestContextImpl(server, server.getContextPath(), request, response, server.getRouteTable().cursor(request));
+            ctx.recycleBy(this);
+            return ctx;
+        }
+
+        VertxHttpRequest request = (VertxHttpRequest) ctx.getRequest();
+        VertxHttpResponse response = (VertxHttpResponse) ctx.getResponse();
+        request.reset(vertxRequest);
+        response.reset(vertxRequest);
+        ctx.reset(server.getContextPath(), request, response, server.getRouteTable().cursor(request));
+        return ctx;
+    }
+
+    void release(HttpRequestContextImpl ctx) {
+        if (Vertx.currentContext() == owner) {
+            offer(ctx);
+        } else {
+            owner.runOnContext(v -> offer(ctx));
+        }
+    }
+
+    private void offer(HttpRequestContextImpl ctx) {
+        if (contexts.size() < maxSize) {
+            contexts.addLast(ctx);
+        }
+    }
+
+    public int size() {
+        return contexts.size();
+    }
+}
@@ -0,0 +1,360 @@
+package com.sproutigy.verve.webserver.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sproutigy.commons.async.FutureWatch;
+import com.sproutigy.commons.binary.Binary;
+import com.sproutigy.verve.webserver.HttpRequestScope;
+import com.sproutigy.verve.webserver.HttpResponse;
+import com.sproutigy.verve.webserver.vertx.VertxUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Sends returned {@link Iterator}, {@link Stream}, {@link InputStream} or {@link Publisher}
+ * as chunked response, element by element, pausing when response write queue is full.
+ * Binary elements (byte[], {@link Binary}, {@link Buffer}) are written as they are,
+ * other elements are serialized to JSON, one per line (NDJSON).
+ * Large collections are streamed as single JSON array instead.
+ */
+@Slf4j
+class ResponseStreamer {
+
+    public static final String NDJSON_CONTENT_TYPE = "application/x-ndjson; charset=UTF-8";
+    public static final String JSON_CONTENT_TYPE = "application/json; charset=UTF-8";
+
+    static final int INPUT_STREAM_CHUNK_SIZE = 8 * 1024;
+    static final int PUBLISHER_BATCH_SIZE = 16;
+
+    private final HttpRequestContextImpl ctx;
+    private final HttpResponse response;
+    private final Runnable onComplete;
+    private boolean started = false;
+
+    ResponseStreamer(HttpRequestContextImpl ctx, Runnable onComplete) {
+        this.ctx = ctx;
+        this.response = ctx.getResponse();
+        this.onComplete = onComplete;
+    }
+
+    static boolean isStreamable(Object o) {
+        return o instanceof Iterator || o instanceof Stream || o instanceof InputStream || o instanceof Publisher;
+    }
+
+    @SuppressWarnings("unchecked")
+    void stream(Object source) {
+        if (isHead()) {
+            if (source instanceof AutoCloseable) {
+                closeQuietly((AutoCloseable) source);
+            }
+            complete(null);
+            return;
+        }
+
+        if (source instanceof InputStream) {
+            pumpInputStream((InputStream) source);
+        } else if (source instanceof Publisher) {
+            ((Publisher<Object>) source).subscribe(new ResponseSubscriber());
+        } else if (source instanceof Stream) {
+            Stream<?> stream = (Stream<?>) source;
+            pumpIterator(stream.iterator(), stream);
+        } else {
+            pumpIterator((Iterator<?>) source, null);
+        }
+    }
+
+    /**
+     * Serializes elements as JSON array, sending it in chunks of at least flushSize bytes.
+     * When the whole array fits in single chunk, it is sent with Content-Length instead of chunked.
+     */
+    void streamJsonArray(Iterator<?> iterator, int flushSize) {
+        response.setHeaderIfNotSet(HttpHeaderNames.CONTENT_TYPE, JSON_CONTENT_TYPE);
+        if (isHead()) {
+            complete(null);
+            return;
+        }
+
+        JsonArrayWriter writer;
+        try {
+            writer = new JsonArrayWriter(flushSize);
+        } catch (Throwable e) {
+            fail(e, null);
+            return;
+        }
+        pumpJsonArray(iterator, writer);
+    }
+
+    private void pumpJsonArray(Iterator<?> iterator, JsonArrayWriter writer) {
+        try (HttpRequestScope ignore = HttpRequestScope.enter(ctx)) {
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                if (writer.isFull()) {
+                    start(null);
+                    response.write(writer.flush());
+                    if (response.isWriteQueueFull()) {
+                        response.drainHandler(() -> pumpJsonArray(iterator, writer));
+                        return;
+                    }
+                }
+            }
+
+            Buffer last = writer.finish();
+            if (started) {
+                response.write(last);
+            } else {
+                //everything fits in single chunk
+                started = true;
+                response.end(last);
+            }
+        } catch (Throwable e) {
+            fail(e, null);
+            return;
+        }
+        complete(null);
+    }
+
+    private final class JsonArrayWriter {
+        private final int flushSize;
+        private final JsonGenerator generator;
+        private final Class<?> elementType;
+        private final ObjectWriter elementWriter;
+        private Buffer buffer;
+
+        JsonArrayWriter(int flushSize) throws IOException {
+            this.flushSize = flushSize;
+            this.elementType = ctx.getStreamElementType();
+            this.elementWriter = elementType != null ? ctx.getJsonWriter(elementType) : null;
+            this.buffer = Buffer.buffer(flushSize);
+            this.generator = ctx.createJsonGenerator(new OutputStream() {
+                @Override
+                public void write(int b) {
+                    buffer.appendByte((byte) b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    buffer.appendBytes(b, off, len);
+                }
+            });
+            generator.writeStartArray();
+        }
+
+        //elements are serialized as declared type, the same way as not streamed collection would be
+        void write(Object element) throws IOException {
+            if (elementWriter != null && elementType.isInstance(element)) {
+                elementWriter.writeValue(generator, element);
+            } else {
+                generator.writeObject(element);
+            }
+        }
+
+        boolean isFull() {
+            return buffer.length() + Math.max(0, generator.getOutputBuffered()) >= flushSize;
+        }
+
+        Buffer flush() throws IOException {
+            generator.flush();
+            Buffer chunk = buffer;
+            buffer = Buffer.buffer(flushSize);
+            return chunk;
+        }
+
+        Buffer finish() throws IOException {
+            generator.writeEndArray();
+            generator.close();
+            return buffer;
+        }
+    }
+
+    private void pumpIterator(Iterator<?> iterator, AutoCloseable resource) {
+        try (HttpRequestScope ignore = HttpRequestScope.enter(ctx)) {
+            while (iterator.hasNext()) {
+                write(iterator.next());
+                if (response.isWriteQueueFull()) {
+                    response.drainHandler(() -> pumpIterator(iterator, resource));
+                    return;
+                }
+            }
+        } catch (Throwable e) {
+            fail(e, resource);
+            return;
+        }
+        complete(resource);
+    }
+
+    private void pumpInputStream(InputStream in) {
+        FutureWatch.listen(ctx.blocking(() -> {
+            byte[] chunk = new byte[INPUT_STREAM_CHUNK_SIZE];
+            int length = in.read(chunk);
+            return length < 0 ? null : Buffer.buffer(Unpooled.wrappedBuffer(chunk, 0, length));
+        }), (result, chunk, cause) -> ctx.getVertx().runOnContext(v -> {
+            if (!result.isSuccess()) {
+                fail(cause, in);
+                return;
+            }
+            if (chunk == null) {
+                complete(in);
+                return;
+            }
+            try {
+                write(chunk);
+            } catch (Throwable e) {
+                fail(e, in);
+                return;
+            }
+            if (response.isWriteQueueFull()) {
+                response.drainHandler(() -> pumpInputStream(in));
+            } else {
+                pumpInputStream(in);
+            }
+        }));
+    }
+
+    private final class ResponseSubscriber implements Subscriber<Object> {
+        private final Context context = ctx.getVertx().getOrCreateContext();
+        private Subscription subscription;
+        private int pending = 0;
+        private boolean done = false;
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            context.runOnContext(v -> {
+                this.subscription = subscription;
+                requestMore();
+            });
+        }
+
+        @Override
+        public void onNext(Object element) {
+            context.runOnContext(v -> {
+                if (done) {
+                    return;
+                }
+                pending--;
+                try {
+                    write(element);
+                } catch (Throwable e) {
+                    done = true;
+                    subscription.cancel();
+                    fail(e, null);
+                    return;
+                }
+                requestMore();
+            });
+        }
+
+        @Override
+        public void onError(Throwable cause) {
+            context.runOnContext(v -> {
+                if (!done) {
+                    done = true;
+                    fail(cause, null);
+                }
+            });
+        }
+
+        @Override
+        public void onComplete() {
+            context.runOnContext(v -> {
+                if (!done) {
+                    done = true;
+                    complete(null);
+                }
+            });
+        }
+
+        private void requestMore() {
+            if (done || pending > 0) {
+                return;
+            }
+            if (response.isWriteQueueFull()) {
+                response.drainHandler(this::requestMore);
+                return;
+            }
+            pending = PUBLISHER_BATCH_SIZE;
+            subscription.request(PUBLISHER_BATCH_SIZE);
+        }
+    }
+
+    private void start(Object firstElement) {
+        if (started) {
+            return;
+        }
+        started = true;
+        response.setHeaderIfNotSet(HttpHeaderNames.CONTENT_TYPE, isBinary(firstElement) ? "application/octet-stream" : NDJSON_CONTENT_TYPE);
+        if (!isHead()) {
+            //HEAD response has no body to be chunked
+            response.setChunked(true);
+        }
+    }
+
+    private void write(Object element) throws Exception {
+        start(element);
+        response.write(encode(element));
+    }
+
+    private Buffer encode(Object element) throws Exception {
+        if (element instanceof Buffer) {
+            return (Buffer) element;
+        }
+        if (element instanceof byte[]) {
+            return VertxUtil.wrap((byte[]) element);
+        }
+        if (element instanceof Binary) {
+            return VertxUtil.wrap((Binary) element);
+        }
+        return ctx.serializeToBuffer(element).appendByte((byte) '\n');
+    }
+
+    private boolean isHead() {
+        return Objects.equals(ctx.getRequest().getMethod(), HttpMethod.HEAD.name());
+    }
+
+    private static boolean isBinary(Object element) {
+        return element instanceof Buffer || element instanceof byte[] || element instanceof Binary;
+    }
+
+    private void complete(AutoCloseable resource) {
+        closeQuietly(resource);
+        if (!response.isFinalized()) {
+            start(null);
+            response.end();
+        }
+        onComplete.run();
+    }
+
+    private void fail(Throwable cause, AutoCloseable resource) {
+        closeQuietly(resource);
+        if (!started) {
+            ctx.thrown(cause);
+        } else {
+            //status is already sent, response can only be cut short
+            log.error("Streaming response of {} failed", ctx, cause);
+            response.end();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable resource) {
+        if (resource != null) {
+            try {
+                resource.close();
+            } catch (Exception e) {
+                log.debug("Could not close {}", resource, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.sproutigy.verve.webserver.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Data format (JSON, Smile, CBOR, MessagePack, ...) negotiated by Accept and Content-Type headers.
+ */
+public interface Codec {
+    String getMediaType();
+
+    /**
+     * @return value of Content-Type header of serialized data
+     */
+    default String getContentType() {
+        return getMediaType();
+    }
+
+    ObjectMapper getObjectMapper();
+
+    /**
+     * @return cached reader of given type
+     */
+    ObjectReader getReader(Class<?> type);
+
+    /**
+     * @return cached writer of given type, writer of runtime type of values when type is null
+     */
+    ObjectWriter getWriter(Class<?> type);
+}
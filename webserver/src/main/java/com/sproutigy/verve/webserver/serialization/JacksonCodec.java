@@ -0,0 +1,59 @@
+package com.sproutigy.verve.webserver.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.Getter;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Codec of any data format supported by Jackson, caching readers and writers per type.
+ */
+public class JacksonCodec implements Codec {
+
+    @Getter
+    private final String mediaType;
+
+    @Getter
+    private final String contentType;
+
+    @Getter
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter genericWriter;
+    private final ConcurrentHashMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public JacksonCodec(String mediaType, ObjectMapper objectMapper) {
+        this(mediaType, mediaType, objectMapper);
+    }
+
+    /**
+     * @param objectMapper configured mapper, must not be modified afterwards as readers and writers are cached
+     */
+    public JacksonCodec(String mediaType, String contentType, ObjectMapper objectMapper) {
+        this.mediaType = mediaType;
+        this.contentType = contentType;
+        this.objectMapper = objectMapper;
+        this.genericWriter = objectMapper.writer();
+    }
+
+    @Override
+    public ObjectReader getReader(Class<?> type) {
+        return readers.computeIfAbsent(type, objectMapper::readerFor);
+    }
+
+    @Override
+    public ObjectWriter getWriter(Class<?> type) {
+        if (type == null || type == Object.class || type == void.class) {
+            return genericWriter;
+        }
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+
+    @Override
+    public String toString() {
+        return "JacksonCodec{" + mediaType + "}";
+    }
+}
@@ -0,0 +1,190 @@
+package com.sproutigy.verve.webserver.serialization;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Jackson based serialization service.
+ * Registers bytecode accelerating module (Blackbird or Afterburner) when found on classpath.
+ * Smile, CBOR and MessagePack codecs are registered when their Jackson data format is found on classpath.
+ */
+@Slf4j
+@Singleton
+public class JacksonSerializationService implements SerializationService {
+
+    public static final String SMILE_MEDIA_TYPE = "application/x-jackson-smile";
+    public static final String CBOR_MEDIA_TYPE = "application/cbor";
+    public static final String MSGPACK_MEDIA_TYPE = "application/x-msgpack";
+
+    private static final String[] ACCELERATION_MODULES = {
+            "com.fasterxml.jackson.module.blackbird.BlackbirdModule",
+            "com.fasterxml.jackson.module.afterburner.AfterburnerModule"
+    };
+
+    private static volatile JacksonSerializationService defaultInstance;
+
+    private final Codec jsonCodec;
+    private final Map<String, Codec> codecsByMediaType = new ConcurrentHashMap<>();
+    private final List<Codec> codecs = new CopyOnWriteArrayList<>();
+
+    public JacksonSerializationService() {
+        this(createDefaultObjectMapper());
+        registerBinaryCodecs();
+    }
+
+    /**
+     * @param objectMapper configured JSON mapper, must not be modified afterwards as readers and writers are cached
+     */
+    public JacksonSerializationService(ObjectMapper objectMapper) {
+        this.jsonCodec = new JacksonCodec(JSON_MEDIA_TYPE, JSON_MEDIA_TYPE + "; charset=UTF-8", objectMapper);
+        registerCodec(jsonCodec);
+    }
+
+    public static JacksonSerializationService getDefault() {
+        if (defaultInstance == null) {
+            synchronized (JacksonSerializationService.class) {
+                if (defaultInstance == null) {
+                    defaultInstance = new JacksonSerializationService();
+                }
+            }
+        }
+        return defaultInstance;
+    }
+
+    /**
+     * Lets injector hand out the same instance as {@link #getDefault()}.
+     */
+    public static class DefaultProvider implements Provider<SerializationService> {
+        @Override
+        public SerializationService get() {
+            return getDefault();
+        }
+    }
+
+    public static ObjectMapper createDefaultObjectMapper() {
+        return createObjectMapper(null);
+    }
+
+    private static ObjectMapper createObjectMapper(JsonFactory factory) {
+        ObjectMapper mapper = new ObjectMapper(factory);
+        registerAccelerationModule(mapper);
+        return mapper;
+    }
+
+    private static void registerAccelerationModule(ObjectMapper mapper) {
+        for (String className : ACCELERATION_MODULES) {
+            try {
+                Module module = (Module) Class.forName(className).newInstance();
+                mapper.registerModule(module);
+                log.debug("Registered Jackson module {}", className);
+                return;
+            } catch (ClassNotFoundException | LinkageError ignore) {
+            } catch (Exception e) {
+                log.warn("Could not register Jackson module {}", className, e);
+            }
+        }
+    }
+
+    private void registerBinaryCodecs() {
+        registerCodec("com.fasterxml.jackson.dataformat.smile.SmileFactory", SMILE_MEDIA_TYPE, "application/smile");
+        registerCodec("com.fasterxml.jackson.dataformat.cbor.CBORFactory", CBOR_MEDIA_TYPE);
+        registerCodec("org.msgpack.jackson.dataformat.MessagePackFactory", MSGPACK_MEDIA_TYPE, "application/msgpack");
+    }
+
+    private void registerCodec(String factoryClassName, String mediaType, String... aliases) {
+        try {
+            JsonFactory factory = (JsonFactory) Class.forName(factoryClassName).newInstance();
+            registerCodec(new JacksonCodec(mediaType, createObjectMapper(factory)), aliases);
+            log.debug("Registered {} codec", mediaType);
+        } catch (ClassNotFoundException | LinkageError ignore) {
+        } catch (Exception e) {
+            log.warn("Could not register {} codec", mediaType, e);
+        }
+    }
+
+    @Override
+    public Codec getJsonCodec() {
+        return jsonCodec;
+    }
+
+    @Override
+    public void registerCodec(Codec codec, String... aliases) {
+        codecsByMediaType.put(codec.getMediaType(), codec);
+        for (String alias : aliases) {
+            codecsByMediaType.put(alias, codec);
+        }
+        codecs.add(codec);
+    }
+
+    @Override
+    public Collection<Codec> getCodecs() {
+        return Collections.unmodifiableList(codecs);
+    }
+
+    @Nullable
+    @Override
+    public Codec getCodec(@Nullable String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        return codecsByMediaType.get(baseMediaType(contentType));
+    }
+
+    @Override
+    public Codec negotiate(@Nullable String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return jsonCodec;
+        }
+
+        Codec best = null;
+        float bestQuality = 0;
+        for (String range : accept.split(",")) {
+            String mediaType = baseMediaType(range);
+            float quality = quality(range);
+            if (quality <= bestQuality) {
+                continue;
+            }
+
+            Codec codec;
+            if (mediaType.equals("*/*") || mediaType.equals("application/*")) {
+                codec = jsonCodec;
+            } else {
+                codec = codecsByMediaType.get(mediaType);
+            }
+            if (codec != null) {
+                best = codec;
+                bestQuality = quality;
+            }
+        }
+        return best != null ? best : jsonCodec;
+    }
+
+    private static String baseMediaType(String value) {
+        int separator = value.indexOf(';');
+        String mediaType = separator >= 0 ? value.substring(0, separator) : value;
+        return mediaType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static float quality(String range) {
+        for (String parameter : range.split(";")) {
+            parameter = parameter.trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Float.parseFloat(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,83 @@
+package com.sproutigy.verve.webserver.serialization;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.inject.ProvidedBy;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+
+/**
+ * Serialization shared by HTTP server and handlers, so there is single configured ObjectMapper
+ * and readers/writers are created once per type.
+ * Besides JSON, other data formats can be plugged in as codecs negotiated by media type.
+ */
+@ProvidedBy(JacksonSerializationService.DefaultProvider.class)
+public interface SerializationService {
+
+    String JSON_MEDIA_TYPE = "application/json";
+
+    Codec getJsonCodec();
+
+    /**
+     * Registers codec under its media type and given aliases.
+     */
+    void registerCodec(Codec codec, String... aliases);
+
+    Collection<Codec> getCodecs();
+
+    /**
+     * @param contentType value of Content-Type header, parameters are ignored
+     * @return codec of given media type or null when not supported
+     */
+    @Nullable
+    Codec getCodec(@Nullable String contentType);
+
+    /**
+     * @param accept value of Accept header
+     * @return most preferred supported codec, JSON codec when header is missing or nothing matches
+     */
+    Codec negotiate(@Nullable String accept);
+
+    default ObjectMapper getObjectMapper() {
+        return getJsonCodec().getObjectMapper();
+    }
+
+    /**
+     * @return cached JSON reader of given type
+     */
+    default ObjectReader getReader(Class<?> type) {
+        return getJsonCodec().getReader(type);
+    }
+
+    /**
+     * @return cached JSON writer of given type, writer of runtime type of values when type is null
+     */
+    default ObjectWriter getWriter(Class<?> type) {
+        return getJsonCodec().getWriter(type);
+    }
+
+    default <T> T readValue(byte[] data, Class<T> type) throws IOException {
+        return getReader(type).readValue(data);
+    }
+
+    default <T> T readValue(JsonNode node, Class<T> type) throws IOException {
+        return getReader(type).readValue(node);
+    }
+
+    default JsonNode readTree(byte[] data) throws IOException {
+        return getObjectMapper().readTree(data);
+    }
+
+    default JsonNode readTree(String data) throws IOException {
+        return getObjectMapper().readTree(data);
+    }
+
+    default void writeValue(OutputStream out, Object value) throws IOException {
+        getWriter(value != null ? value.getClass() : null).writeValue(out, value);
+    }
+}
@@ -0,0 +1,19 @@
+package com.sproutigy.verve.webserver.vertx;
+
+/**
+ * Defines on which threads HTTP requests are dispatched.
+ */
+public enum ExecutionMode {
+    /**
+     * Requests are dispatched on worker threads, so handlers are allowed to block.
+     */
+    WORKER,
+
+    /**
+     * Requests are dispatched directly on event loop threads, handlers must not block.
+     * Blocking work should be returned as {@link java.util.concurrent.Callable} or {@link Runnable}
+     * (or passed to {@link com.sproutigy.verve.webserver.HttpRequestContext#blocking(java.util.concurrent.Callable)}),
+     * so it is offloaded to worker threads.
+     */
+    EVENT_LOOP
+}
@@ -0,0 +1,160 @@
+package com.sproutigy.verve.webserver.vertx;
+
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+
+/**
+ * Blocking {@link InputStream} view of {@link ReadStream} of buffers.
+ * Has to be created on the stream's context thread and read from another (worker) thread.
+ * Stream is paused when more than high watermark bytes are queued
+ * and resumed when reader drains the queue below low watermark, so memory usage stays bounded.
+ */
+public class ReadStreamInputStream extends InputStream {
+
+    public static final int DEFAULT_LOW_WATERMARK = 64 * 1024;
+    public static final int DEFAULT_HIGH_WATERMARK = 256 * 1024;
+
+    private final ReadStream<Buffer> stream;
+    private final Context context;
+    private final int lowWatermark;
+    private final int highWatermark;
+
+    private final ArrayDeque<Buffer> queue = new ArrayDeque<>();
+    private int queuedBytes = 0;
+    private boolean paused = false;
+    private boolean ended = false;
+    private boolean closed = false;
+    private Throwable failure = null;
+
+    private Buffer current = null;
+    private int position = 0;
+
+    public ReadStreamInputStream(ReadStream<Buffer> stream, Context context) {
+        this(stream, context, DEFAULT_LOW_WATERMARK, DEFAULT_HIGH_WATERMARK);
+    }
+
+    public ReadStreamInputStream(ReadStream<Buffer> stream, Context context, int lowWatermark, int highWatermark) {
+        this.stream = stream;
+        this.context = context;
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+
+        stream.handler(this::onData);
+        stream.endHandler(v -> onEnd(null));
+        stream.exceptionHandler(this::onEnd);
+    }
+
+    private synchronized void onData(Buffer buffer) {
+        if (closed) {
+            return;
+        }
+        queue.add(buffer);
+        queuedBytes += buffer.length();
+        if (!paused && queuedBytes >= highWatermark) {
+            paused = true;
+            stream.pause();
+        }
+        notifyAll();
+    }
+
+    private synchronized void onEnd(Throwable cause) {
+        ended = true;
+        failure = cause;
+        notifyAll();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n = read(b, 0, 1);
+        return n == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        while (current == null) {
+            Buffer next = queue.poll();
+            if (next != null) {
+                queuedBytes -= next.length();
+                resumeIfDrained();
+                if (next.length() > 0) {
+                    current = next;
+                    position = 0;
+                }
+                continue;
+            }
+            if (failure != null) {
+                throw new IOException(failure);
+            }
+            if (ended) {
+                return -1;
+            }
+            if (Context.isOnEventLoopThread()) {
+                throw new IllegalStateException("Blocking read on event loop thread");
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+
+        int n = Math.min(len, current.length() - position);
+        current.getByteBuf().getBytes(position, b, off, n);
+        position += n;
+        if (position == current.length()) {
+            current = null;
+        }
+        return n;
+    }
+
+    @Override
+    public synchronized int available() {
+        return (current != null ? current.length() - position : 0) + queuedBytes;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+            queuedBytes = 0;
+            current = null;
+            notifyAll();
+        }
+        //let the rest of the stream flow, so it is discarded
+        runOnContext(stream::resume);
+    }
+
+    private void resumeIfDrained() {
+        if (paused && queuedBytes <= lowWatermark) {
+            paused = false;
+            runOnContext(stream::resume);
+        }
+    }
+
+    private void runOnContext(Runnable runnable) {
+        if (context != null) {
+            context.runOnContext(v -> runnable.run());
+        } else {
+            runnable.run();
+        }
+    }
+}
@@ -8,22 +8,39 @@ import com.sproutigy.verve.webserver.HttpRequest;
 import com.sproutigy.verve.webserver.exceptions.RequestEntityTooLargeHttpException;
 import com.sproutigy.verve.webserver.impl.AbstractHttpRequest;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.streams.ReadStream;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.Collection;
 
 public class VertxHttpRequest extends AbstractHttpRequest implements HttpRequest {
-    private final HttpServerRequest vertxRequest;
+    private HttpServerRequest vertxRequest;
 
     private volatile Deferred<Binary> dataDeferred = null;
+    private volatile boolean streamed = false;
+    private boolean dispatchPaused = false;
 
     public VertxHttpRequest(HttpServerRequest vertxRequest) {
         this.vertxRequest = vertxRequest;
     }
 
+    /**
+     * Rebinds pooled wrapper to next request.
+     */
+    public void reset(HttpServerRequest vertxRequest) {
+        super.reset();
+        this.vertxRequest = vertxRequest;
+        this.dataDeferred = null;
+        this.streamed = false;
+        this.dispatchPaused = false;
+    }
+
     public HttpServerRequest asVertxRequest() {
         return vertxRequest;
     }
@@ -45,7 +62,12 @@ public class VertxHttpRequest extends AbstractHttpRequest implements HttpRequest
 
     @Override
     public String getMethod() {
-        return asVertxRequest().method().toString();
+        return asVertxRequest().method().name();
+    }
+
+    @Override
+    public HttpMethod getHttpMethod() {
+        return asVertxRequest().method();
     }
 
     public String getContextualPath() {
@@ -59,6 +81,11 @@ public class VertxHttpRequest extends AbstractHttpRequest implements HttpRequest
                 return dataDeferred.getPromise();
             }
             dataDeferred = Promise.defer();
+            dispatchPaused = false; //resumed below, once handlers are registered
+            if (streamed) {
+                dataDeferred.reject(new IllegalStateException("Request body already consumed as stream"));
+                return dataDeferred.getPromise();
+            }
         }
 
         BinaryBuilder binaryBuilder = new BinaryBuilder();
@@ -90,6 +117,160 @@ public class VertxHttpRequest extends AbstractHttpRequest implements HttpRequest
         return dataDeferred.getPromise();
     }
 
+    /**
+     * @return true when body was already fetched (or is being fetched) or consumed as stream
+     */
+    public boolean isBodyConsumed() {
+        return dataDeferred != null || streamed;
+    }
+
+    /**
+     * Consumes body as stream, passing chunks to chunkHandler as they arrive, without collecting them.
+     * Body is not available to {@link #fetchData(long)} afterwards.
+     * When limit is exceeded, request is answered with 413, connection is closed
+     * and returned promise is rejected with {@link RequestEntityTooLargeHttpException}.
+     *
+     * @return promise resolved when whole body was passed to chunkHandler
+     */
+    public Promise<Void> streamData(long limit, Handler<Buffer> chunkHandler) {
+        Deferred<Void> deferred = Promise.defer();
+        synchronized (this) {
+            if (isBodyConsumed()) {
+                deferred.reject(new IllegalStateException("Request body already consumed"));
+                return deferred.getPromise();
+            }
+            streamed = true;
+            dispatchPaused = false; //resumed below, once handlers are registered
+        }
+
+        try {
+            HttpServerRequest req = asVertxRequest();
+            req.pause();
+            long[] received = new long[1];
+            req.handler(buffer -> {
+                if (deferred.getPromise().isDone()) {
+                    return;
+                }
+                received[0] += buffer.length();
+                if (limit == 0 || received[0] <= limit) {
+                    chunkHandler.handle(buffer);
+                } else {
+                    req.response().setStatusCode(HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code());
+                    req.response().close();
+                    deferred.reject(new RequestEntityTooLargeHttpException());
+                }
+            });
+            req.endHandler(aVoid -> {
+                if (!deferred.getPromise().isDone()) {
+                    deferred.resolve(null);
+                }
+            });
+            req.exceptionHandler(cause -> {
+                if (!deferred.getPromise().isDone()) {
+                    deferred.reject(cause);
+                }
+            });
+            req.resume();
+        } catch (IllegalStateException e) {
+            deferred.reject(e);
+        }
+
+        return deferred.getPromise();
+    }
+
+    @Override
+    public ReadStream<Buffer> getBodyStream() {
+        boolean paused;
+        synchronized (this) {
+            if (dataDeferred != null) {
+                throw new IllegalStateException("Request body already fetched");
+            }
+            streamed = true;
+            paused = dispatchPaused;
+            dispatchPaused = false;
+        }
+        return paused ? new DispatchPausedStream(asVertxRequest()) : asVertxRequest();
+    }
+
+    /**
+     * Pauses body until its consumer is registered by {@link #fetchData(long)} or {@link #getBodyStream()},
+     * so chunks arriving while handler is being dispatched to another thread are not lost.
+     * Has to be called on request's context thread.
+     */
+    public synchronized void pauseForDispatch() {
+        if (dispatchPaused || isBodyConsumed()) {
+            return;
+        }
+        try {
+            vertxRequest.pause();
+            dispatchPaused = true;
+        } catch (IllegalStateException ignore) {
+            //request already ended
+        }
+    }
+
+    /**
+     * Resumes body paused by {@link #pauseForDispatch()} when no consumer was registered.
+     */
+    public void resumeAfterDispatch() {
+        synchronized (this) {
+            if (!dispatchPaused) {
+                return;
+            }
+            dispatchPaused = false;
+        }
+        try {
+            vertxRequest.resume();
+        } catch (IllegalStateException ignore) {
+        }
+    }
+
+    //resumes paused request once data handler is set, unless consumer pauses or resumes it by itself
+    private static final class DispatchPausedStream implements ReadStream<Buffer> {
+        private final ReadStream<Buffer> stream;
+        private boolean resumePending = true;
+
+        DispatchPausedStream(ReadStream<Buffer> stream) {
+            this.stream = stream;
+        }
+
+        @Override
+        public ReadStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+            stream.exceptionHandler(handler);
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> handler(Handler<Buffer> handler) {
+            stream.handler(handler);
+            if (handler != null && resumePending) {
+                resumePending = false;
+                stream.resume();
+            }
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> pause() {
+            resumePending = false;
+            stream.pause();
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> resume() {
+            resumePending = false;
+            stream.resume();
+            return this;
+        }
+
+        @Override
+        public ReadStream<Buffer> endHandler(Handler<Void> endHandler) {
+            stream.endHandler(endHandler);
+            return this;
+        }
+    }
+
     @Override
     public String getQueryString() {
         return vertxRequest.query();
@@ -24,6 +24,15 @@ public class VertxHttpResponse extends AbstractHttpResponse {
         this.vertxResponse = vertxRequest.response();
     }
 
+    /**
+     * Rebinds pooled wrapper to response of next request.
+     */
+    public void reset(HttpServerRequest vertxRequest) {
+        this.vertxRequest = vertxRequest;
+        this.vertxResponse = vertxRequest.response();
+        this.finalized = false;
+    }
+
     public HttpServerResponse asVertxResponse() {
         return vertxResponse;
     }
@@ -71,6 +80,29 @@ public class VertxHttpResponse extends AbstractHttpResponse {
         return deferred.getPromise();
     }
 
+    @Override
+    public HttpResponse setChunked(boolean chunked) {
+        asVertxResponse().setChunked(chunked);
+        return this;
+    }
+
+    @Override
+    public HttpResponse write(Buffer data) {
+        asVertxResponse().write(data);
+        return this;
+    }
+
+    @Override
+    public boolean isWriteQueueFull() {
+        return asVertxResponse().writeQueueFull();
+    }
+
+    @Override
+    public HttpResponse drainHandler(Runnable handler) {
+        asVertxResponse().drainHandler(v -> handler.run());
+        return this;
+    }
+
     @Override
     public void end(Binary data) {
         try {
@@ -79,7 +111,22 @@ public class VertxHttpResponse extends AbstractHttpResponse {
                     setHeaderIfNotSet(HttpHeaders.CONTENT_LENGTH, Long.toString(data.length()));
                 }
                 finalized = true;
-                asVertxResponse().end(Buffer.buffer(data.asByteArray(false)));
+                asVertxResponse().end(VertxUtil.wrap(data));
+            } else {
+                end();
+            }
+        } catch (Throwable e) {
+            log.warn("Could not gracefully end response", e);
+        }
+    }
+
+    @Override
+    public void end(Buffer data) {
+        try {
+            if (data != null) {
+                setHeaderIfNotSet(HttpHeaders.CONTENT_LENGTH, Integer.toString(data.length()));
+                finalized = true;
+                asVertxResponse().end(data);
             } else {
                 end();
             }
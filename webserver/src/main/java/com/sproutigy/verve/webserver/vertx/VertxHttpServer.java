@@ -2,11 +2,14 @@ package com.sproutigy.verve.webserver.vertx;
 
 import com.sproutigy.commons.async.Deferred;
 import com.sproutigy.commons.async.Promise;
+import io.netty.util.concurrent.EventExecutor;
 import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.impl.VertxInternal;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -29,15 +32,22 @@ public class VertxHttpServer implements AutoCloseable, Handler<HttpServerRequest
     @Inject
     public VertxHttpServer(Vertx vertx) {
         this.vertx = vertx;
+        this.workerPools = new WorkerPools(vertx);
     }
 
+    @Getter
+    private final WorkerPools workerPools;
+
     @Getter
     @Setter
     private HttpServerOptions serverOptions = defaultServerOptions();
 
+    @Getter
+    private ExecutionMode executionMode = ExecutionMode.WORKER;
+
     @Getter
     @Setter
-    private DeploymentOptions verticleDeploymentOptions = defaultVerticleDeploymentOptions();
+    private DeploymentOptions verticleDeploymentOptions = defaultVerticleDeploymentOptions(executionMode);
 
     @Getter
     @Setter
@@ -64,15 +74,51 @@ public class VertxHttpServer implements AutoCloseable, Handler<HttpServerRequest
         return options;
     }
 
-    private static DeploymentOptions defaultVerticleDeploymentOptions() {
+    /**
+     * Sets execution mode, updating worker flag and number of instances of current verticle deployment options.
+     * Other deployment options are kept as they are. Has to be called before server is started.
+     */
+    public void setExecutionMode(ExecutionMode executionMode) {
+        if (verticleDeploymentId != null) {
+            throw new IllegalStateException("Already running");
+        }
+        this.executionMode = executionMode;
+        applyExecutionMode(verticleDeploymentOptions, executionMode);
+    }
+
+    private DeploymentOptions defaultVerticleDeploymentOptions(ExecutionMode executionMode) {
         DeploymentOptions options = new DeploymentOptions();
-        int processors = Runtime.getRuntime().availableProcessors();
-        options.setInstances(processors * 2);
-        options.setWorker(true);
-        options.setWorkerPoolSize(processors * 50);
+        if (executionMode == ExecutionMode.WORKER) {
+            options.setWorkerPoolSize(Runtime.getRuntime().availableProcessors() * 50);
+        }
+        applyExecutionMode(options, executionMode);
         return options;
     }
 
+    private void applyExecutionMode(DeploymentOptions options, ExecutionMode executionMode) {
+        if (executionMode == ExecutionMode.EVENT_LOOP) {
+            //one verticle instance per event loop
+            options.setInstances(getEventLoopPoolSize());
+            options.setWorker(false);
+        } else {
+            options.setInstances(Runtime.getRuntime().availableProcessors() * 2);
+            options.setWorker(true);
+        }
+    }
+
+    private int getEventLoopPoolSize() {
+        if (vertx instanceof VertxInternal) {
+            int size = 0;
+            for (EventExecutor ignore : ((VertxInternal) vertx).getEventLoopGroup()) {
+                size++;
+            }
+            if (size > 0) {
+                return size;
+            }
+        }
+        return VertxOptions.DEFAULT_EVENT_LOOP_POOL_SIZE;
+    }
+
     @Override
     public void handle(HttpServerRequest req) {
         if (log.isTraceEnabled()) {
@@ -149,6 +195,7 @@ public class VertxHttpServer implements AutoCloseable, Handler<HttpServerRequest
             if (verticleDeploymentId != null) {
                 log.info("Stopping HTTP Server...");
                 getVertx().undeploy(verticleDeploymentId, event1 -> {
+                    workerPools.close();
                     getVertx().close(event2 -> {
                         VertxUtil.bindAsyncResultToDeferred(event2, stopDeferred);
                         verticleDeploymentId = null;
@@ -1,7 +1,13 @@
 package com.sproutigy.verve.webserver.vertx;
 
 import com.sproutigy.commons.async.Deferred;
+import com.sproutigy.commons.binary.Binary;
+import io.netty.buffer.Unpooled;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
 import lombok.extern.slf4j.Slf4j;
@@ -108,6 +114,31 @@ public final class VertxUtil {
         }
     }
 
+    /**
+     * Wraps byte array into buffer without copying, so the array must not be modified afterwards.
+     */
+    public static Buffer wrap(byte[] bytes) {
+        return Buffer.buffer(Unpooled.wrappedBuffer(bytes));
+    }
+
+    /**
+     * Wraps binary into buffer, without copying when binary is backed by byte array.
+     */
+    public static Buffer wrap(Binary binary) {
+        return wrap(binary.asByteArray(false));
+    }
+
+    /**
+     * Runs action directly when already running on given context, otherwise schedules it on the context.
+     */
+    public static void runOnContext(Context context, Handler<Void> action) {
+        if (Vertx.currentContext() == context) {
+            action.handle(null);
+        } else {
+            context.runOnContext(action);
+        }
+    }
+
     public static <V> void bindAsyncResultToDeferred(AsyncResult<V> asyncResult, Deferred<V> deferred) {
         if (asyncResult.succeeded()) {
             deferred.resolve(asyncResult.result());
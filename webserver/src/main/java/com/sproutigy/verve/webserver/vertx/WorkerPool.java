@@ -0,0 +1,163 @@
+package com.sproutigy.verve.webserver.vertx;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.WorkerExecutor;
+import lombok.Getter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Worker pool with bounded queue and queue depth metrics.
+ * Tasks submitted when queue is full are rejected with {@link RejectedExecutionException}.
+ * When backed by virtual threads, every task gets its own thread and ordering is not preserved,
+ * number of tasks running at once is still limited by pool size (when set).
+ */
+public class WorkerPool {
+
+    @Getter
+    private final String name;
+
+    /**
+     * Maximum number of tasks waiting for a worker thread, unbounded when 0 or less.
+     */
+    @Getter
+    private final int maxQueueSize;
+
+    private final Vertx vertx;
+    private final WorkerExecutor executor;
+    private final ExecutorService virtualThreadExecutor;
+    private final Semaphore running; //virtual threads only, platform threads are bounded by executor itself
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    WorkerPool(String name, int maxQueueSize, Vertx vertx, WorkerExecutor executor, ExecutorService virtualThreadExecutor) {
+        this(name, maxQueueSize, vertx, executor, virtualThreadExecutor, 0);
+    }
+
+    /**
+     * @param virtualPoolSize maximum number of tasks run at once on virtual threads, unbounded when 0 or less
+     */
+    WorkerPool(String name, int maxQueueSize, Vertx vertx, WorkerExecutor executor, ExecutorService virtualThreadExecutor, int virtualPoolSize) {
+        this.name = name;
+        this.maxQueueSize = maxQueueSize;
+        this.vertx = vertx;
+        this.executor = executor;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.running = virtualThreadExecutor != null && virtualPoolSize > 0 ? new Semaphore(virtualPoolSize, true) : null;
+    }
+
+    public boolean isVirtual() {
+        return virtualThreadExecutor != null;
+    }
+
+    public <T> void executeBlocking(Handler<Future<T>> blockingCode, boolean ordered, Handler<AsyncResult<T>> resultHandler) {
+        if (maxQueueSize > 0 && queued.incrementAndGet() > maxQueueSize) {
+            queued.decrementAndGet();
+            rejected.increment();
+            resultHandler.handle(Future.failedFuture(new RejectedExecutionException("Worker pool " + name + " queue is full")));
+            return;
+        }
+        if (maxQueueSize <= 0) {
+            queued.incrementAndGet();
+        }
+
+        Handler<Future<T>> meteredCode = future -> {
+            queued.decrementAndGet();
+            active.incrementAndGet();
+            try {
+                blockingCode.handle(future);
+            } finally {
+                active.decrementAndGet();
+                completed.increment();
+            }
+        };
+
+        if (virtualThreadExecutor != null) {
+            executeVirtual(meteredCode, resultHandler);
+        } else if (executor != null) {
+            executor.executeBlocking(meteredCode, ordered, resultHandler);
+        } else {
+            vertx.executeBlocking(meteredCode, ordered, resultHandler);
+        }
+    }
+
+    private <T> void executeVirtual(Handler<Future<T>> blockingCode, Handler<AsyncResult<T>> resultHandler) {
+        Context context = vertx.getOrCreateContext();
+        try {
+            virtualThreadExecutor.execute(() -> {
+                Future<T> future = Future.future();
+                boolean acquired = false;
+                try {
+                    if (running != null) {
+                        //waiting virtual thread stays counted as queued
+                        running.acquire();
+                        acquired = true;
+                    }
+                    blockingCode.handle(future);
+                } catch (InterruptedException e) {
+                    queued.decrementAndGet();
+                    Thread.currentThread().interrupt();
+                    future.fail(e);
+                } catch (Throwable e) {
+                    if (!future.isComplete()) {
+                        future.fail(e);
+                    }
+                } finally {
+                    if (acquired) {
+                        running.release();
+                    }
+                }
+                future.setHandler(result -> context.runOnContext(v -> resultHandler.handle(result)));
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            rejected.increment();
+            resultHandler.handle(Future.failedFuture(e));
+        }
+    }
+
+    /**
+     * @return number of tasks waiting for a worker thread
+     */
+    public int getQueueSize() {
+        return queued.get();
+    }
+
+    /**
+     * @return number of tasks being executed
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    void close() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "WorkerPool{name=" + name + ", queued=" + getQueueSize() + ", active=" + getActiveCount()
+                + ", completed=" + getCompletedCount() + ", rejected=" + getRejectedCount() + "}";
+    }
+}
@@ -0,0 +1,141 @@
+package com.sproutigy.verve.webserver.vertx;
+
+import com.sproutigy.verve.webserver.VirtualThreads;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Registry of named worker pools, so blocking routes of one group cannot starve the others.
+ * Named pools are created lazily as Vert.x shared worker executors,
+ * default pool (empty name) runs on Vert.x worker pool.
+ * When virtual threads are enabled, all pools run their tasks on virtual threads instead,
+ * named pools still run at most their pool size of tasks at once, default pool is not limited.
+ */
+public class WorkerPools implements AutoCloseable {
+
+    public static final String DEFAULT_POOL = "";
+
+    private final Vertx vertx;
+    private final Map<String, Integer> poolSizes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> maxQueueSizes = new ConcurrentHashMap<>();
+    private final Map<String, WorkerPool> pools = new ConcurrentHashMap<>();
+
+    @Getter
+    @Setter
+    private int defaultPoolSize = VertxOptions.DEFAULT_WORKER_POOL_SIZE;
+
+    /**
+     * Maximum queue size of pools without explicitly set one, unbounded when 0 or less.
+     */
+    @Getter
+    @Setter
+    private int defaultMaxQueueSize = 0;
+
+    @Getter
+    private boolean virtualThreads = VirtualThreads.isEnabled();
+
+    private volatile ExecutorService virtualThreadExecutor;
+
+    public WorkerPools(Vertx vertx) {
+        this.vertx = vertx;
+    }
+
+    /**
+     * Enables running blocking tasks on virtual threads. Has to be called before any pool is used.
+     *
+     * @throws UnsupportedOperationException when enabling and virtual threads are not supported
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        if (!pools.isEmpty()) {
+            throw new IllegalStateException("Worker pools already in use");
+        }
+        if (virtualThreads && !VirtualThreads.isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported");
+        }
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Sets size of named pool. Has to be called before pool is used for the first time.
+     *
+     * @throws IllegalArgumentException for default pool, its size is set by Vert.x options
+     */
+    public void setPoolSize(String name, int poolSize) {
+        String n = normalize(name);
+        if (n.isEmpty()) {
+            throw new IllegalArgumentException("Size of default worker pool is set by Vert.x options");
+        }
+        checkNotCreated(n);
+        poolSizes.put(n, poolSize);
+    }
+
+    /**
+     * Sets maximum number of tasks waiting in pool queue. Has to be called before pool is used for the first time.
+     */
+    public void setMaxQueueSize(String name, int maxQueueSize) {
+        checkNotCreated(normalize(name));
+        maxQueueSizes.put(normalize(name), maxQueueSize);
+    }
+
+    public WorkerPool getDefault() {
+        return get(DEFAULT_POOL);
+    }
+
+    /**
+     * @return pool of given name, default pool when name is null or empty
+     */
+    public WorkerPool get(String name) {
+        return pools.computeIfAbsent(normalize(name), n -> {
+            int maxQueueSize = maxQueueSizes.getOrDefault(n, defaultMaxQueueSize);
+            if (virtualThreads) {
+                int poolSize = n.isEmpty() ? 0 : poolSizes.getOrDefault(n, defaultPoolSize);
+                return new WorkerPool(n, maxQueueSize, vertx, null, getVirtualThreadExecutor(), poolSize);
+            }
+            if (n.isEmpty()) {
+                return new WorkerPool(n, maxQueueSize, vertx, null, null);
+            }
+            return new WorkerPool(n, maxQueueSize, vertx, vertx.createSharedWorkerExecutor(n, poolSizes.getOrDefault(n, defaultPoolSize)), null);
+        });
+    }
+
+    private synchronized ExecutorService getVirtualThreadExecutor() {
+        if (virtualThreadExecutor == null) {
+            virtualThreadExecutor = VirtualThreads.newExecutor();
+        }
+        return virtualThreadExecutor;
+    }
+
+    public Collection<WorkerPool> getPools() {
+        return Collections.unmodifiableCollection(pools.values());
+    }
+
+    @Override
+    public void close() {
+        for (WorkerPool pool : pools.values()) {
+            pool.close();
+        }
+        pools.clear();
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+            virtualThreadExecutor = null;
+        }
+    }
+
+    private void checkNotCreated(String name) {
+        if (pools.containsKey(name)) {
+            throw new IllegalStateException("Worker pool " + name + " already created");
+        }
+    }
+
+    private static String normalize(String name) {
+        return name != null ? name : DEFAULT_POOL;
+    }
+}
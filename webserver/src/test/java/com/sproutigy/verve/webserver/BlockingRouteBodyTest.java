@@ -0,0 +1,70 @@
+package com.sproutigy.verve.webserver;
+
+import com.sproutigy.commons.binary.Binary;
+import com.sproutigy.verve.webserver.annotations.Blocking;
+import com.sproutigy.verve.webserver.impl.HttpRouterImpl;
+import com.sproutigy.verve.webserver.vertx.ExecutionMode;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class BlockingRouteBodyTest {
+
+    private static final int PORT = 18471;
+
+    @Blocking
+    public static class EchoHandler implements HttpHandler {
+        @Override
+        public Object handle(HttpRequestContext ctx) throws Exception {
+            //body arrives while handler is still being dispatched to worker thread
+            Thread.sleep(200);
+            Binary data = ctx.getRequest().fetchData(0).get(5, TimeUnit.SECONDS);
+            return new String(data.asByteArray(false), StandardCharsets.UTF_8);
+        }
+    }
+
+    private Vertx vertx;
+    private HttpServer httpServer;
+
+    @Before
+    public void setUp() throws Exception {
+        vertx = Vertx.vertx();
+        httpServer = new HttpServer(vertx);
+        httpServer.getVertxHttpServer().setExecutionMode(ExecutionMode.EVENT_LOOP);
+        HttpRouter router = new HttpRouterImpl();
+        router.add(new EchoHandler());
+        httpServer.setRouteProvider(router);
+        httpServer.start(PORT).get(10, TimeUnit.SECONDS);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        httpServer.close();
+        vertx.close();
+    }
+
+    @Test
+    public void testBodyOfBlockingRoute() throws Exception {
+        StringBuilder payload = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            payload.append("chunk-").append(i).append(';');
+        }
+
+        CompletableFuture<String> response = new CompletableFuture<>();
+        HttpClient client = vertx.createHttpClient();
+        client.post(PORT, "localhost", "/echo", resp -> resp.bodyHandler(body -> response.complete(body.toString())))
+                .exceptionHandler(response::completeExceptionally)
+                .end(payload.toString());
+
+        assertEquals(payload.toString(), response.get(10, TimeUnit.SECONDS));
+        client.close();
+    }
+}
@@ -0,0 +1,49 @@
+package com.sproutigy.verve.webserver;
+
+import com.sproutigy.verve.webserver.annotations.Blocking;
+import com.sproutigy.verve.webserver.annotations.NonBlocking;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class HttpRouteTest {
+
+    @NonBlocking
+    static class NonBlockingHandler implements HttpHandler {
+        @Override
+        public Object handle(HttpRequestContext ctx) {
+            return null;
+        }
+    }
+
+    @Blocking("reports")
+    static class BlockingHandler implements HttpHandler {
+        @Override
+        public Object handle(HttpRequestContext ctx) {
+            return null;
+        }
+    }
+
+    @Test
+    public void testExecutionAnnotations() {
+        List<HttpRoute> routes = HttpRoute.from(new NonBlockingHandler());
+        assertEquals(1, routes.size());
+        assertTrue(routes.get(0).isNonBlocking());
+        assertFalse(routes.get(0).isBlocking());
+
+        routes = HttpRoute.from(new BlockingHandler());
+        assertEquals(1, routes.size());
+        assertTrue(routes.get(0).isBlocking());
+        assertEquals("reports", routes.get(0).getWorkerPool());
+    }
+
+    @Test
+    public void testDefaultExecution() {
+        HttpRoute route = new HttpRoute(0, HttpRouteFilter.ALWAYS, ctx -> null, String.class, String.class);
+        assertEquals(HandlerExecution.AUTO, route.getExecution());
+        assertEquals(String.class, route.getInputType());
+        assertNull(route.getWorkerPool());
+    }
+}
@@ -0,0 +1,31 @@
+package com.sproutigy.verve.webserver;
+
+import com.sproutigy.verve.webserver.impl.HttpRouterImpl;
+import io.vertx.core.Vertx;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HttpServerTest {
+
+    @Test
+    public void testRouteTableFollowsRouter() throws Exception {
+        Vertx vertx = Vertx.vertx();
+        try {
+            HttpServer httpServer = new HttpServer(vertx);
+            HttpRouter router = new HttpRouterImpl();
+            httpServer.setRouteProvider(router);
+            assertEquals(0, httpServer.getRouteTable().size());
+
+            router.add("GET", "/a", ctx -> null);
+            assertEquals(1, httpServer.getRouteTable().size());
+
+            //replaced router is no longer followed
+            httpServer.setRouteProvider(new HttpRouterImpl());
+            router.add("GET", "/b", ctx -> null);
+            assertEquals(0, httpServer.getRouteTable().size());
+        } finally {
+            vertx.close();
+        }
+    }
+}
@@ -5,8 +5,9 @@ import org.junit.Test;
 import java.util.Collections;
 import java.util.Map;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
 
 public class PathPatternTest {
 
@@ -47,4 +48,34 @@ public class PathPatternTest {
 
         assertNull(pathPattern.matchParams("/hello"));
     }
+
+    @Test
+    public void testMatchOffsets() {
+        PathPattern pathPattern = new PathPattern("/api/:id/*rest");
+        assertTrue(pathPattern.isSegmentPattern());
+        assertEquals(2, pathPattern.getCapturesCount());
+
+        int[] offsets = new int[8];
+        String path = "/api/42/a/b";
+        assertTrue(pathPattern.match(path, offsets, 2));
+        assertEquals(5, offsets[2]);
+        assertEquals(7, offsets[3]);
+        assertEquals(8, offsets[4]);
+        assertEquals(11, offsets[5]);
+
+        Map<String, String> params = pathPattern.params(path, offsets, 2);
+        assertEquals("42", params.get("id"));
+        assertEquals("a/b", params.get("rest"));
+        assertEquals(2, params.size());
+
+        assertFalse(pathPattern.match("/api//a", offsets, 0));
+    }
+
+    @Test
+    public void testRegexFallback() {
+        PathPattern pathPattern = new PathPattern(Pattern.compile("/files/(?<name>[a-z]+)\\.txt"));
+        assertFalse(pathPattern.isSegmentPattern());
+        assertEquals(Collections.singletonMap("name", "readme"), pathPattern.matchParams("/files/readme.txt"));
+        assertNull(pathPattern.matchParams("/files/readme.md"));
+    }
 }
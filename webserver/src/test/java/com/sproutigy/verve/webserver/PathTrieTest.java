@@ -0,0 +1,67 @@
+package com.sproutigy.verve.webserver;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class PathTrieTest {
+
+    private static Map<String, Map<String, String>> find(PathTrie<String> trie, String path) {
+        Map<String, Map<String, String>> matches = new LinkedHashMap<>();
+        trie.find(path, (value, p, offsets, names) -> {
+            Map<String, String> params = new LinkedHashMap<>();
+            for (int i = 0; i < names.length; i++) {
+                if (names[i] != null) {
+                    params.put(names[i], p.substring(offsets[i * 2], offsets[i * 2 + 1]));
+                }
+            }
+            matches.put(value, params);
+        });
+        return matches;
+    }
+
+    @Test
+    public void testStaticAndParams() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert(new PathPattern("/article/list"), "list");
+        trie.insert(new PathPattern("/article/:id"), "article");
+        trie.insert(new PathPattern("/:section/:id"), "section");
+
+        Map<String, Map<String, String>> matches = find(trie, "/article/list");
+        assertEquals(Collections.emptyMap(), matches.get("list"));
+        assertEquals(Collections.singletonMap("id", "list"), matches.get("article"));
+        assertEquals("article", matches.get("section").get("section"));
+
+        matches = find(trie, "/sport/555");
+        assertEquals(1, matches.size());
+        assertEquals("555", matches.get("section").get("id"));
+
+        assertTrue(find(trie, "/article/128/helloWorld").isEmpty());
+    }
+
+    @Test
+    public void testGreedyParams() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert(new PathPattern("/article/*id"), "article");
+        trie.insert(new PathPattern("/*path/*name"), "file");
+
+        Map<String, Map<String, String>> matches = find(trie, "/article/128/helloWorld");
+        assertEquals(Collections.singletonMap("id", "128/helloWorld"), matches.get("article"));
+        assertEquals("article/128", matches.get("file").get("path"));
+        assertEquals("helloWorld", matches.get("file").get("name"));
+
+        assertTrue(find(trie, "/hello").isEmpty());
+    }
+
+    @Test
+    public void testRegexOnlyPatternsNotIndexed() {
+        PathTrie<String> trie = new PathTrie<>();
+        assertFalse(trie.insert(new PathPattern("/index.html"), "index"));
+        assertFalse(trie.insert(new PathPattern(java.util.regex.Pattern.compile("/a+")), "regex"));
+        assertEquals(0, trie.size());
+    }
+}
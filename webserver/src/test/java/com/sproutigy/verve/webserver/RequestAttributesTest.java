@@ -0,0 +1,46 @@
+package com.sproutigy.verve.webserver;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class RequestAttributesTest {
+
+    private static final AttributeKey<String> NAME = AttributeKey.of("test-name", String.class);
+    private static final AttributeKey<Integer> COUNT = AttributeKey.of("test-count", Integer.class);
+
+    @Test
+    public void testKeysAreInterned() {
+        assertSame(NAME, AttributeKey.of("test-name", String.class));
+        try {
+            AttributeKey.of("test-name", Integer.class);
+            fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testFindByName() {
+        assertSame(NAME, AttributeKey.find("test-name"));
+        assertNull(AttributeKey.find("test-unknown"));
+    }
+
+    @Test
+    public void testGetSetRemove() {
+        RequestAttributes attributes = new RequestAttributes();
+        assertNull(attributes.get(NAME));
+        assertFalse(attributes.has(COUNT));
+
+        attributes.set(NAME, "john");
+        attributes.set(COUNT, 3);
+        assertEquals("john", attributes.get(NAME));
+        assertEquals(Integer.valueOf(3), attributes.get(COUNT));
+
+        assertEquals("john", attributes.remove(NAME));
+        assertNull(attributes.get(NAME));
+        assertTrue(attributes.has(COUNT));
+
+        attributes.clear();
+        assertNull(attributes.get(COUNT));
+    }
+}
@@ -0,0 +1,31 @@
+package com.sproutigy.verve.webserver.impl;
+
+import com.sproutigy.verve.webserver.DefaultHttpRouteFilter;
+import com.sproutigy.verve.webserver.HttpRouteFilter;
+import io.vertx.core.http.HttpMethod;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class HttpMethodBucketsTest {
+
+    @Test
+    public void testPartition() {
+        int[] masks = new int[] {
+                HttpMethodBuckets.mask(new DefaultHttpRouteFilter("GET", "/a")),
+                HttpMethodBuckets.mask(new DefaultHttpRouteFilter("POST", "/a")),
+                HttpMethodBuckets.mask(new DefaultHttpRouteFilter("/a")),
+                HttpMethodBuckets.mask(HttpRouteFilter.ALWAYS)
+        };
+        assertEquals(HttpMethodBuckets.ANY_METHOD_MASK, masks[2]);
+        assertEquals(HttpMethodBuckets.ANY_METHOD_MASK, masks[3]);
+
+        int[][] buckets = HttpMethodBuckets.partition(masks);
+        assertEquals(HttpMethodBuckets.slots(), buckets.length);
+        assertArrayEquals(new int[] {0, 2, 3}, buckets[HttpMethodBuckets.slot(HttpMethod.GET)]);
+        assertArrayEquals(new int[] {1, 2, 3}, buckets[HttpMethodBuckets.slot(HttpMethod.POST)]);
+        assertArrayEquals(new int[] {2, 3}, buckets[HttpMethodBuckets.slot(HttpMethod.DELETE)]);
+        assertArrayEquals(new int[] {2, 3}, buckets[HttpMethodBuckets.slot(null)]);
+    }
+}
@@ -0,0 +1,41 @@
+package com.sproutigy.verve.webserver.impl;
+
+import com.sproutigy.verve.webserver.HttpHandler;
+import com.sproutigy.verve.webserver.HttpRoute;
+import com.sproutigy.verve.webserver.HttpRouteFilter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class HttpRouterImplTest {
+
+    private static List<HttpRoute> list(Iterable<HttpRoute> routes) {
+        List<HttpRoute> list = new ArrayList<>();
+        routes.forEach(list::add);
+        return list;
+    }
+
+    @Test
+    public void testOrderingConsistentAcrossAddMethods() {
+        HttpRouterImpl router = new HttpRouterImpl();
+        HttpHandler handler1 = ctx -> 1;
+        HttpHandler handler2 = ctx -> 2;
+        HttpHandler handler3 = ctx -> 3;
+        HttpHandler handler4 = ctx -> 4;
+
+        HttpRoute route1 = router.add(10, HttpRouteFilter.ALWAYS, handler1);
+        HttpRoute route2 = router.add(HttpRouteFilter.ALWAYS, handler2);
+        HttpRoute route3 = new HttpRoute(-5, HttpRouteFilter.ALWAYS, handler3);
+        HttpRoute route4 = new HttpRoute(0, HttpRouteFilter.ALWAYS, handler4);
+        router.addAll(Arrays.asList(route3, route4));
+
+        assertEquals(Arrays.asList(route3, route2, route4, route1), list(router));
+
+        router.remove(route2);
+        assertEquals(Arrays.asList(route3, route4, route1), list(router));
+    }
+}
@@ -0,0 +1,50 @@
+package com.sproutigy.verve.webserver.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class JacksonSerializationServiceTest {
+
+    private static final String BINARY_MEDIA_TYPE = "application/x-test-binary";
+
+    private JacksonSerializationService createService(Codec binaryCodec) {
+        JacksonSerializationService service = new JacksonSerializationService(new ObjectMapper());
+        service.registerCodec(binaryCodec, "application/test-binary");
+        return service;
+    }
+
+    @Test
+    public void testNegotiate() {
+        Codec binaryCodec = new JacksonCodec(BINARY_MEDIA_TYPE, new ObjectMapper());
+        JacksonSerializationService service = createService(binaryCodec);
+        Codec jsonCodec = service.getJsonCodec();
+
+        assertSame(jsonCodec, service.negotiate(null));
+        assertSame(jsonCodec, service.negotiate("*/*"));
+        assertSame(jsonCodec, service.negotiate("text/html"));
+        assertSame(binaryCodec, service.negotiate(BINARY_MEDIA_TYPE));
+        assertSame(binaryCodec, service.negotiate("application/test-binary"));
+        assertSame(binaryCodec, service.negotiate("text/html, " + BINARY_MEDIA_TYPE + ";q=0.9, */*;q=0.8"));
+        assertSame(jsonCodec, service.negotiate(BINARY_MEDIA_TYPE + ";q=0.5, application/json"));
+    }
+
+    @Test
+    public void testCodecByContentType() {
+        Codec binaryCodec = new JacksonCodec(BINARY_MEDIA_TYPE, new ObjectMapper());
+        JacksonSerializationService service = createService(binaryCodec);
+
+        assertSame(service.getJsonCodec(), service.getCodec("application/json; charset=UTF-8"));
+        assertSame(binaryCodec, service.getCodec(BINARY_MEDIA_TYPE));
+        assertNull(service.getCodec("text/plain"));
+        assertNull(service.getCodec(null));
+    }
+
+    @Test
+    public void testCachedReadersAndWriters() {
+        JacksonSerializationService service = new JacksonSerializationService(new ObjectMapper());
+        assertSame(service.getReader(String.class), service.getReader(String.class));
+        assertSame(service.getWriter(String.class), service.getWriter(String.class));
+    }
+}